@@ -0,0 +1,139 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread safe vertex registry. Registrations and releases are serialized by a lock, while lookups
+ * are optimistic: they read the tables without locking and only retry under the read lock when a
+ * registration or release happened meanwhile. Thus, readers are not blocked unless they race with
+ * a writer.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.VertexRegistry
+ */
+public class ConcurrentVertexRegistry<V extends Vertex> extends VertexRegistry<V> {
+
+  private final StampedLock lock = new StampedLock();
+
+  public ConcurrentVertexRegistry() {
+    super();
+  }
+
+  /**
+   * @param expectedSize Expected number of vertices, used to avoid rehashing the table.
+   */
+  public ConcurrentVertexRegistry(int expectedSize) {
+    super(expectedSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getId(V v) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        int id = super.getId(v);
+        if (lock.validate(stamp)) {
+          return id;
+        }
+      } catch (RuntimeException e) {
+        // The tables were read while being modified, so the lookup is repeated under the lock.
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return super.getId(v);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public V getVertex(int id) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        V v = super.getVertex(id);
+        if (lock.validate(stamp)) {
+          return v;
+        }
+      } catch (RuntimeException e) {
+        // The tables were read while being modified, so the lookup is repeated under the lock.
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return super.getVertex(id);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size() {
+    long stamp = lock.readLock();
+    try {
+      return super.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getIdBound() {
+    long stamp = lock.readLock();
+    try {
+      return super.getIdBound();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int register(V v) {
+    long stamp = lock.writeLock();
+    try {
+      return super.register(v);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int release(V v) {
+    long stamp = lock.writeLock();
+    try {
+      return super.release(v);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+}
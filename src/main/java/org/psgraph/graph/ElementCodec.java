@@ -0,0 +1,50 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes the vertices and edges of an application in the binary formats of the graphs. The
+ * formats store the structure of the graph by themselves, thus the codec only encodes the data of
+ * the elements: the vertices of an edge and its type are stored and decoded by the formats.
+ *
+ * @author Wilson de Carvalho
+ */
+public interface ElementCodec<V extends Vertex, E extends Edge<V>> {
+
+  /**
+   * Writes the data of a given vertex.
+   */
+  void writeVertex(V v, DataOutput out) throws IOException;
+
+  /**
+   * Reads a vertex written by {@link #writeVertex(Vertex, DataOutput)}.
+   */
+  V readVertex(DataInput in) throws IOException;
+
+  /**
+   * Writes the data of a given edge, except its vertices and type.
+   */
+  void writeEdge(E edge, DataOutput out) throws IOException;
+
+  /**
+   * Reads an edge written by {@link #writeEdge(Edge, DataOutput)}.
+   *
+   * @param source The source vertex of the edge, already decoded.
+   * @param target The target vertex of the edge, already decoded.
+   * @param edgeType The type of the edge.
+   */
+  E readEdge(V source, V target, EdgeType edgeType, DataInput in) throws IOException;
+}
@@ -13,6 +13,9 @@ package org.psgraph.graph;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Fundamental definitions for graph implementations.
@@ -46,8 +49,47 @@ public interface Graph<V extends Vertex, E extends Edge<V>> {
    */
   Collection<V> getAdjacentVertices(V v);
 
+  /**
+   * Performs a given action for every adjacent vertex of a given vertex v, together with the edge
+   * that connects v to it. It is equivalent to calling {@link #getEdge(Vertex, Vertex)} for every
+   * adjacent vertex, without the second lookup.
+   */
+  void forEachIncident(V v, BiConsumer<? super V, ? super E> action);
+
   /**
    * Gets the successor of a given vertex.
    */
   Set<V> getSuccessors(V v);
+
+  /**
+   * Performs a given action for every successor of a given vertex, without allocating a view of
+   * the successors.
+   */
+  void forEachSuccessor(V v, Consumer<? super V> action);
+
+  /**
+   * Performs a given action for the id of every successor of the vertex with a given id. The ids
+   * are those of {@link #getVertexIndex()}.
+   */
+  void forEachSuccessor(int id, IntConsumer action);
+
+  /**
+   * Gets the number of successors of a given vertex, or 0 if the vertex does not belong to this
+   * graph.
+   */
+  int getDegree(V v);
+
+  /**
+   * Gets the index that maps the vertices of this graph to dense integer ids. The index is owned by
+   * the graph and reflects its vertices at any moment, so the ids of a mutable graph may be
+   * recycled after a vertex is removed.
+   */
+  VertexIndex<V> getVertexIndex();
+
+  /**
+   * Gets the version of this graph, which is increased whenever the graph is modified. Immutable
+   * graphs are always at version 0, thus any result computed from a graph remains valid while its
+   * version does not change.
+   */
+  long getVersion();
 }
\ No newline at end of file
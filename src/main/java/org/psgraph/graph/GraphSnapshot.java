@@ -0,0 +1,34 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+/**
+ * An immutable view of a graph as it was when the snapshot was taken. The snapshot keeps the old
+ * versions of the vertices modified afterwards alive, thus it must be closed as soon as it is no
+ * longer needed. Reading a closed snapshot throws an {@link IllegalStateException}.
+ *
+ * @author Wilson de Carvalho
+ */
+public interface GraphSnapshot<V extends Vertex, E extends Edge<V>> extends Graph<V, E>,
+    AutoCloseable {
+
+  /**
+   * Gets the version of the graph seen by this snapshot.
+   */
+  long getVersion();
+
+  /**
+   * Releases this snapshot, allowing the versions that only it was using to be discarded.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,62 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The masked analytical graph is a specialization of the masked graph that also hides the masked
+ * vertices and edges from the predecessors of the base analytical graph.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.MaskedGraph
+ */
+public class MaskedAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
+    MaskedGraph<V, E> implements AnalyticalGraph<V, E> {
+
+  private final AnalyticalGraph<V, E> analyticalGraph;
+
+  public MaskedAnalyticalGraph(AnalyticalGraph<V, E> graph) {
+    super(graph);
+    this.analyticalGraph = graph;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getPredecessors(V v) {
+    Set<V> predecessors = analyticalGraph.getPredecessors(v);
+    if (predecessors == null) {
+      return null;
+    }
+    VertexIndex<V> baseIndex = analyticalGraph.getVertexIndex();
+    int id = baseIndex.getId(v);
+    if (id == -1 || isMasked(id)) {
+      return Collections.<V>emptySet();
+    }
+    boolean touched = isTouched(id);
+    if (!touched && !hasMaskedVertices()) {
+      return predecessors;
+    }
+    // The masked edges towards the vertex are only looked up when it has masked incident edges
+    Set<V> ret = new HashSet<>();
+    for (V u : predecessors) {
+      if (touched ? getEdge(u, v) != null : !isMasked(baseIndex.getId(u))) {
+        ret.add(u);
+      }
+    }
+    return ret.size() == predecessors.size() ? predecessors : Collections.unmodifiableSet(ret);
+  }
+}
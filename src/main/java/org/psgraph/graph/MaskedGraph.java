@@ -0,0 +1,480 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A graph that hides some vertices and edges of another graph without copying it, e.g. to screen
+ * contingencies by masking one element at a time of an otherwise unchanged network. The masked
+ * vertices are kept in a bitset indexed by the vertex ids of the base graph, and the vertices that
+ * have masked incident edges are counted in an array indexed by the same ids. Thus, the adjacency
+ * of a vertex that is not touched by any masked edge is read straight from the base graph, only
+ * filtering the masked vertices, and the masked edges are only looked up for the few vertices they
+ * touch.
+ *
+ * The masks may be changed at any time, but not while the graph is being read. The base graph must
+ * not be modified while it is masked.
+ *
+ * @author Wilson de Carvalho
+ */
+public class MaskedGraph<V extends Vertex, E extends Edge<V>> implements Graph<V, E> {
+
+  protected final Graph<V, E> graph;
+  private final VertexIndex<V> baseIndex;
+  private final VertexIndex<V> vertexIndex = new MaskedIndex();
+  private final Set<E> maskedEdges = new HashSet<>();
+  /**
+   * Bitset of the ids of the masked vertices.
+   */
+  private long[] maskedVertices = new long[0];
+  private int maskedVertexCount;
+  /**
+   * Number of masked edges incident to each vertex, by vertex id.
+   */
+  private int[] touched = new int[0];
+  /**
+   * Number of changes of the masks, which is added to the version of the base graph.
+   */
+  private long maskVersion;
+
+  public MaskedGraph(Graph<V, E> graph) {
+    this.graph = graph;
+    this.baseIndex = graph.getVertexIndex();
+  }
+
+  /**
+   * Gets the graph whose vertices and edges are masked.
+   */
+  public Graph<V, E> getBaseGraph() {
+    return graph;
+  }
+
+  /**
+   * Hides a given vertex and all its incident edges.
+   *
+   * @return True if the vertex belongs to the base graph and was not masked yet.
+   */
+  public boolean maskVertex(V v) {
+    int id = baseIndex.getId(v);
+    if (id == -1 || isMasked(id)) {
+      return false;
+    }
+    if ((id >>> 6) >= maskedVertices.length) {
+      maskedVertices = Arrays.copyOf(maskedVertices, Math.max((id >>> 6) + 1,
+          maskedVertices.length * 2));
+    }
+    maskedVertices[id >>> 6] |= 1L << id;
+    maskedVertexCount++;
+    maskVersion++;
+    return true;
+  }
+
+  /**
+   * Shows again a given vertex previously masked.
+   *
+   * @return True if the vertex was masked.
+   */
+  public boolean unmaskVertex(V v) {
+    int id = baseIndex.getId(v);
+    if (id == -1 || !isMasked(id)) {
+      return false;
+    }
+    maskedVertices[id >>> 6] &= ~(1L << id);
+    maskedVertexCount--;
+    maskVersion++;
+    return true;
+  }
+
+  /**
+   * Hides a given edge.
+   *
+   * @return True if the edge was not masked yet.
+   */
+  public boolean maskEdge(E edge) {
+    if (!maskedEdges.add(edge)) {
+      return false;
+    }
+    touch(edge.getSource(), 1);
+    touch(edge.getTarget(), 1);
+    maskVersion++;
+    return true;
+  }
+
+  /**
+   * Shows again a given edge previously masked.
+   *
+   * @return True if the edge was masked.
+   */
+  public boolean unmaskEdge(E edge) {
+    if (!maskedEdges.remove(edge)) {
+      return false;
+    }
+    touch(edge.getSource(), -1);
+    touch(edge.getTarget(), -1);
+    maskVersion++;
+    return true;
+  }
+
+  /**
+   * Shows again all the masked vertices and edges.
+   */
+  public void clearMasks() {
+    Arrays.fill(maskedVertices, 0L);
+    maskedVertexCount = 0;
+    Arrays.fill(touched, 0);
+    maskedEdges.clear();
+    maskVersion++;
+  }
+
+  private void touch(V v, int delta) {
+    int id = baseIndex.getId(v);
+    if (id == -1) {
+      return;
+    }
+    if (id >= touched.length) {
+      touched = Arrays.copyOf(touched, Math.max(id + 1, touched.length * 2));
+    }
+    touched[id] += delta;
+  }
+
+  /**
+   * Checks whether the vertex with a given id is masked.
+   */
+  public boolean isMasked(int id) {
+    return (id >>> 6) < maskedVertices.length && (maskedVertices[id >>> 6] & (1L << id)) != 0;
+  }
+
+  /**
+   * Checks whether a given vertex is masked or does not belong to the base graph.
+   */
+  private boolean isHidden(V v) {
+    return isHiddenId(baseIndex.getId(v));
+  }
+
+  private boolean isHiddenId(int id) {
+    return id == -1 || isMasked(id);
+  }
+
+  /**
+   * Checks whether any vertex is masked.
+   */
+  protected boolean hasMaskedVertices() {
+    return maskedVertexCount > 0;
+  }
+
+  /**
+   * Checks whether the vertex with a given id has masked incident edges.
+   */
+  protected boolean isTouched(int id) {
+    return id < touched.length && touched[id] > 0;
+  }
+
+  /**
+   * Checks whether an edge that leads to a given vertex is visible, given that its origin is not
+   * masked.
+   *
+   * @param touched Whether the origin of the edge has masked incident edges.
+   */
+  private boolean isVisible(boolean touched, V to, E edge) {
+    return !(maskedVertexCount > 0 && isMasked(baseIndex.getId(to)))
+        && !(touched && maskedEdges.contains(edge));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public E getEdge(V from, V to) {
+    int id = baseIndex.getId(from);
+    if (isHiddenId(id) || (maskedVertexCount > 0 && isHidden(to))) {
+      return null;
+    }
+    E edge = graph.getEdge(from, to);
+    return edge != null && isTouched(id) && maskedEdges.contains(edge) ? null : edge;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> getEdges(V v) {
+    int id = baseIndex.getId(v);
+    if (isHiddenId(id)) {
+      return Collections.emptyList();
+    }
+    if (maskedVertexCount == 0 && !isTouched(id)) {
+      return graph.getEdges(v);
+    }
+    List<E> ret = new ArrayList<>();
+    forEachIncident(v, (w, e) -> ret.add(e));
+    return ret;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getVertices() {
+    if (maskedVertexCount == 0) {
+      return graph.getVertices();
+    }
+    return new AbstractSet<V>() {
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public boolean contains(Object o) {
+        return graph.getVertices().contains(o) && !isHidden((V) o);
+      }
+
+      @Override
+      public Iterator<V> iterator() {
+        return new VisibleIterator<>(graph.getVertices().iterator(), v -> !isHidden(v));
+      }
+
+      @Override
+      public int size() {
+        return graph.getVertices().size() - maskedVertexCount;
+      }
+    };
+  }
+
+  /**
+   * Gets the edges that are not masked and whose vertices are not masked. The edges are filtered
+   * in O(E) every time this method is called while there are masks.
+   */
+  @Override
+  public Set<E> getEdges() {
+    if (maskedVertexCount == 0 && maskedEdges.isEmpty()) {
+      return graph.getEdges();
+    }
+    Set<E> ret = new HashSet<>();
+    for (E e : graph.getEdges()) {
+      if (!maskedEdges.contains(e) && !isHidden(e.getSource()) && !isHidden(e.getTarget())) {
+        ret.add(e);
+      }
+    }
+    return Collections.unmodifiableSet(ret);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<V> getAdjacentVertices(V v) {
+    return getSuccessors(v);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachIncident(V v, BiConsumer<? super V, ? super E> action) {
+    int id = baseIndex.getId(v);
+    if (isHiddenId(id)) {
+      return;
+    }
+    boolean touchedVertex = isTouched(id);
+    if (maskedVertexCount == 0 && !touchedVertex) {
+      graph.forEachIncident(v, action);
+      return;
+    }
+    graph.forEachIncident(v, (w, e) -> {
+      if (isVisible(touchedVertex, w, e)) {
+        action.accept(w, e);
+      }
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getSuccessors(V v) {
+    int id = baseIndex.getId(v);
+    if (isHiddenId(id)) {
+      return Collections.emptySet();
+    }
+    if (maskedVertexCount == 0 && !isTouched(id)) {
+      return graph.getSuccessors(v);
+    }
+    Set<V> ret = new HashSet<>();
+    forEachIncident(v, (w, e) -> ret.add(w));
+    return Collections.unmodifiableSet(ret);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(V v, Consumer<? super V> action) {
+    int id = baseIndex.getId(v);
+    if (isHiddenId(id)) {
+      return;
+    }
+    if (isTouched(id)) {
+      forEachIncident(v, (w, e) -> action.accept(w));
+    } else if (maskedVertexCount == 0) {
+      graph.forEachSuccessor(v, action);
+    } else {
+      graph.forEachSuccessor(v, w -> {
+        if (!isMasked(baseIndex.getId(w))) {
+          action.accept(w);
+        }
+      });
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(int id, IntConsumer action) {
+    if (id < 0 || isMasked(id)) {
+      return;
+    }
+    if (isTouched(id)) {
+      forEachIncident(baseIndex.getVertex(id), (w, e) -> action.accept(baseIndex.getId(w)));
+    } else if (maskedVertexCount == 0) {
+      graph.forEachSuccessor(id, action);
+    } else {
+      graph.forEachSuccessor(id, w -> {
+        if (!isMasked(w)) {
+          action.accept(w);
+        }
+      });
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDegree(V v) {
+    int id = baseIndex.getId(v);
+    if (isHiddenId(id)) {
+      return 0;
+    }
+    if (maskedVertexCount == 0 && !isTouched(id)) {
+      return graph.getDegree(v);
+    }
+    int[] degree = new int[1];
+    forEachIncident(v, (w, e) -> degree[0]++);
+    return degree[0];
+  }
+
+  /**
+   * Gets the vertex index of this graph, which keeps the ids of the base graph but does not
+   * recognize the masked vertices.
+   */
+  @Override
+  public VertexIndex<V> getVertexIndex() {
+    return vertexIndex;
+  }
+
+  /**
+   * Gets the version of this graph, which is increased by every change of the base graph and by
+   * every change of the masks.
+   */
+  @Override
+  public long getVersion() {
+    return graph.getVersion() + maskVersion;
+  }
+
+  /**
+   * Vertex index that hides the masked vertices of the base index.
+   */
+  private final class MaskedIndex implements VertexIndex<V> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getId(V v) {
+      int id = baseIndex.getId(v);
+      return id == -1 || isMasked(id) ? -1 : id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getVertex(int id) {
+      return id < 0 || isMasked(id) ? null : baseIndex.getVertex(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+      return baseIndex.size() - maskedVertexCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIdBound() {
+      return baseIndex.getIdBound();
+    }
+  }
+
+  /**
+   * Iterator over the elements of another iterator that satisfy a condition.
+   */
+  private static final class VisibleIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> iterator;
+    private final Predicate<T> visible;
+    private T next;
+
+    VisibleIterator(Iterator<T> iterator, Predicate<T> visible) {
+      this.iterator = iterator;
+      this.visible = visible;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && iterator.hasNext()) {
+        T candidate = iterator.next();
+        if (visible.test(candidate)) {
+          next = candidate;
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T ret = next;
+      next = null;
+      return ret;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Task that runs an action over a range [from, to) of vertex ids, splitting the range in halves
+ * until they are small enough to run sequentially. It is shared by the graph builders and the
+ * algorithms that process all the vertex ids of a graph in parallel.
+ *
+ * @author Wilson de Carvalho
+ */
+public final class RangeTask extends RecursiveAction {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Number of ids below which a range is not split.
+   */
+  public static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  private final RangeAction action;
+  private final int from;
+  private final int to;
+
+  private RangeTask(RangeAction action, int from, int to) {
+    this.action = action;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Runs a given action over the range [0, n), split in tasks of the pool. The action runs in the
+   * calling thread when there is no pool or the range is small.
+   */
+  public static void forEachRange(ForkJoinPool pool, int n, RangeAction action) {
+    if (pool == null || n <= SEQUENTIAL_THRESHOLD) {
+      action.run(0, n);
+    } else {
+      pool.invoke(new RangeTask(action, 0, n));
+    }
+  }
+
+  @Override
+  protected void compute() {
+    if (to - from > SEQUENTIAL_THRESHOLD) {
+      int middle = (from + to) >>> 1;
+      invokeAll(new RangeTask(action, from, middle), new RangeTask(action, middle, to));
+      return;
+    }
+    action.run(from, to);
+  }
+
+  /**
+   * Action over a range [from, to) of vertex ids.
+   */
+  public interface RangeAction {
+
+    void run(int from, int to);
+  }
+}
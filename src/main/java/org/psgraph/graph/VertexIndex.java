@@ -0,0 +1,47 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+/**
+ * Bidirectional mapping between the vertices of a graph and dense integer ids. Every vertex of the
+ * graph owns an id in the range [0, {@link #getIdBound()}) and ids are kept compact, so algorithms
+ * may store their per vertex state in primitive arrays indexed by id instead of hash maps.
+ *
+ * @author Wilson de Carvalho
+ */
+public interface VertexIndex<V extends Vertex> {
+
+  /**
+   * Gets the id of a given vertex.
+   *
+   * @return The vertex id or -1 if the vertex does not belong to the graph.
+   */
+  int getId(V v);
+
+  /**
+   * Gets the vertex that owns a given id.
+   *
+   * @return The vertex or null if the id is not assigned to any vertex.
+   */
+  V getVertex(int id);
+
+  /**
+   * Gets the number of vertices indexed.
+   */
+  int size();
+
+  /**
+   * Gets the exclusive upper bound of the ids currently assigned, i.e. the length that an array
+   * must have to be indexed by any of the vertex ids.
+   */
+  int getIdBound();
+}
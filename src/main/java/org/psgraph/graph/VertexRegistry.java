@@ -0,0 +1,223 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph;
+
+/**
+ * Vertex index backed by an open addressing hash table (vertex to id) and an array (id to vertex),
+ * which avoids boxing the ids and allocating one map entry per vertex. The ids released by removed
+ * vertices are recycled by the next registrations, so the ids stay compact even when the graph is
+ * modified continuously.
+ *
+ * This class is not thread safe. It may be read by multiple threads as long as no vertex is being
+ * registered or released.
+ *
+ * @author Wilson de Carvalho
+ */
+public class VertexRegistry<V extends Vertex> implements VertexIndex<V> {
+
+  private static final int MAXIMUM_TABLE_SIZE = 1 << 30;
+
+  private Object[] keys;
+  private int[] ids;
+  private Object[] vertices;
+  private int[] freeIds;
+  private int freeCount;
+  private int size;
+  private int idBound;
+
+  public VertexRegistry() {
+    this(16);
+  }
+
+  /**
+   * @param expectedSize Expected number of vertices, used to avoid rehashing the table.
+   */
+  public VertexRegistry(int expectedSize) {
+    int tableSize = tableSizeFor(expectedSize);
+    this.keys = new Object[tableSize];
+    this.ids = new int[tableSize];
+    this.vertices = new Object[Math.max(expectedSize, 16)];
+    this.freeIds = new int[16];
+  }
+
+  /**
+   * Gets the smallest power of two that keeps the load factor below 0.5 for a given size.
+   */
+  private static int tableSizeFor(int expectedSize) {
+    int tableSize = 16;
+    while (tableSize < MAXIMUM_TABLE_SIZE && tableSize < 2L * expectedSize) {
+      tableSize <<= 1;
+    }
+    return tableSize;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Gets the table slot where a given vertex is stored or -1 if it is not registered.
+   */
+  private int slotOf(Object v) {
+    int mask = keys.length - 1;
+    int i = hash(v) & mask;
+    Object key;
+    while ((key = keys[i]) != null) {
+      if (key.equals(v)) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getId(V v) {
+    if (v == null) {
+      return -1;
+    }
+    int slot = slotOf(v);
+    return slot == -1 ? -1 : ids[slot];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public V getVertex(int id) {
+    return id >= 0 && id < idBound ? (V) vertices[id] : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getIdBound() {
+    return idBound;
+  }
+
+  /**
+   * Registers a given vertex, assigning it the most recently released id or a new one when there is
+   * no id to recycle.
+   *
+   * @return The id of the vertex. If the vertex is already registered, its current id is returned.
+   */
+  public int register(V v) {
+    int slot = slotOf(v);
+    if (slot != -1) {
+      return ids[slot];
+    }
+    int id = freeCount > 0 ? freeIds[--freeCount] : idBound++;
+    if (id == vertices.length) {
+      Object[] grown = new Object[vertices.length * 2];
+      System.arraycopy(vertices, 0, grown, 0, vertices.length);
+      vertices = grown;
+    }
+    vertices[id] = v;
+    if (2 * (size + 1) > keys.length) {
+      rehash(keys.length * 2);
+    }
+    insert(v, id);
+    size++;
+    return id;
+  }
+
+  /**
+   * Releases the id of a given vertex so that it may be recycled.
+   *
+   * @return The released id or -1 if the vertex is not registered.
+   */
+  public int release(V v) {
+    if (v == null) {
+      return -1;
+    }
+    int slot = slotOf(v);
+    if (slot == -1) {
+      return -1;
+    }
+    int id = ids[slot];
+    delete(slot);
+    vertices[id] = null;
+    size--;
+    if (id == idBound - 1) {
+      idBound--;
+    } else {
+      if (freeCount == freeIds.length) {
+        int[] grown = new int[freeIds.length * 2];
+        System.arraycopy(freeIds, 0, grown, 0, freeCount);
+        freeIds = grown;
+      }
+      freeIds[freeCount++] = id;
+    }
+    return id;
+  }
+
+  private void insert(Object v, int id) {
+    int mask = keys.length - 1;
+    int i = hash(v) & mask;
+    while (keys[i] != null) {
+      i = (i + 1) & mask;
+    }
+    keys[i] = v;
+    ids[i] = id;
+  }
+
+  /**
+   * Removes the key stored in a given slot, shifting back the keys of the same probe sequence so
+   * that no tombstones are needed.
+   */
+  private void delete(int slot) {
+    int mask = keys.length - 1;
+    int i = slot;
+    int j = slot;
+    while (true) {
+      j = (j + 1) & mask;
+      Object key = keys[j];
+      if (key == null) {
+        break;
+      }
+      int home = hash(key) & mask;
+      boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+      if (!between) {
+        keys[i] = key;
+        ids[i] = ids[j];
+        i = j;
+      }
+    }
+    keys[i] = null;
+  }
+
+  private void rehash(int tableSize) {
+    Object[] oldKeys = keys;
+    int[] oldIds = ids;
+    keys = new Object[tableSize];
+    ids = new int[tableSize];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        insert(oldKeys[i], oldIds[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.psgraph.graph.EdgeType;
+
+/**
+ * Layout of the binary graph files. All the numbers are big endian and the file is made of:
+ *
+ * <pre>
+ * header           magic, version, n, m, entries, reserved (ints) and the position of the
+ *                  position tables (long), in {@link #HEADER_SIZE} bytes
+ * offsets          int[n + 1], the rows of the adjacency of each vertex
+ * targets          int[entries], the target vertex of each entry of the rows
+ * edgeRefs         int[entries], the edge of each entry of the rows
+ * edgeSources      int[m], the source vertex of each edge
+ * edgeTargets      int[m], the target vertex of each edge
+ * edgeTypes        byte[m], 0 for directed and 1 for undirected edges
+ * elements         the vertices and then the edges, encoded by an element codec
+ * vertexPositions  long[n + 1], the position of each vertex in the file
+ * edgePositions    long[m + 1], the position of each edge in the file
+ * </pre>
+ *
+ * Vertices are numbered from 0 to n-1 and edges from 0 to m-1. The rows keep the order in which
+ * the adjacency of each vertex was iterated when the file was written, so they are not sorted.
+ *
+ * @author Wilson de Carvalho
+ */
+final class BinaryGraphFormat {
+
+  static final int MAGIC = 0x50534731;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private BinaryGraphFormat() {
+  }
+
+  static byte typeCode(EdgeType edgeType) {
+    return (byte) (edgeType == EdgeType.Directed ? 0 : 1);
+  }
+
+  /**
+   * Gets the edge type of a given code or null if the code is not valid.
+   */
+  static EdgeType edgeType(byte code) {
+    return code == 0 ? EdgeType.Directed : code == 1 ? EdgeType.Undirected : null;
+  }
+
+  /**
+   * Writes the first <i>length</i> ints of an array in chunks, avoiding one call per byte.
+   */
+  static void writeInts(OutputStream out, int[] values, int length) throws IOException {
+    ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+    for (int i = 0; i < length; ) {
+      int count = Math.min(length - i, BUFFER_SIZE / 4);
+      chunk.clear();
+      chunk.asIntBuffer().put(values, i, count);
+      out.write(chunk.array(), 0, count * 4);
+      i += count;
+    }
+  }
+
+  static void writeLongs(OutputStream out, long[] values) throws IOException {
+    ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+    for (int i = 0; i < values.length; ) {
+      int count = Math.min(values.length - i, BUFFER_SIZE / 8);
+      chunk.clear();
+      chunk.asLongBuffer().put(values, i, count);
+      out.write(chunk.array(), 0, count * 8);
+      i += count;
+    }
+  }
+
+  static int[] readInts(DataInput in, int length) throws IOException {
+    int[] ret = new int[length];
+    byte[] chunk = new byte[BUFFER_SIZE];
+    for (int i = 0; i < length; ) {
+      int count = Math.min(length - i, BUFFER_SIZE / 4);
+      in.readFully(chunk, 0, count * 4);
+      ByteBuffer.wrap(chunk, 0, count * 4).asIntBuffer().get(ret, i, count);
+      i += count;
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.ElementCodec;
+import org.psgraph.graph.SparseRepresentation;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexRegistry;
+import org.psgraph.graph.exception.GraphException;
+
+/**
+ * Loads graphs written by the {@link BinaryGraphWriter}. The file is read in a single sequential
+ * pass and the adjacency is rebuilt from the stored rows by the {@link GraphBuilder}, so no edge is
+ * inserted one by one. The vertices of the loaded graph have the ids they were numbered with in the
+ * file.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.immutable.BinaryGraphFormat
+ */
+public class BinaryGraphReader<V extends Vertex, E extends Edge<V>> {
+
+  private final ElementCodec<V, E> codec;
+
+  public BinaryGraphReader(ElementCodec<V, E> codec) {
+    this.codec = codec;
+  }
+
+  public SparseGraph<V, E> readSparseGraph(Path path) throws GraphException {
+    return readSparseGraph(path, SparseRepresentation.Hash);
+  }
+
+  public SparseGraph<V, E> readSparseGraph(Path path, SparseRepresentation sparseRepresentation)
+      throws GraphException {
+    return new GraphBuilder<V, E>().withSparseRepresentation(sparseRepresentation)
+        .buildSparseGraph(read(path));
+  }
+
+  public SparseAnalyticalGraph<V, E> readSparseAnalyticalGraph(Path path) throws GraphException {
+    return readSparseAnalyticalGraph(path, SparseRepresentation.Hash);
+  }
+
+  public SparseAnalyticalGraph<V, E> readSparseAnalyticalGraph(Path path,
+      SparseRepresentation sparseRepresentation) throws GraphException {
+    return new GraphBuilder<V, E>().withSparseRepresentation(sparseRepresentation)
+        .buildSparseAnalyticalGraph(read(path));
+  }
+
+  public CompressedSparseGraph<V, E> readCompressedSparseGraph(Path path) throws GraphException {
+    return new CompressedSparseGraph<>(compress(read(path)));
+  }
+
+  public CompressedSparseAnalyticalGraph<V, E> readCompressedSparseAnalyticalGraph(Path path)
+      throws GraphException {
+    return new CompressedSparseAnalyticalGraph<>(compress(read(path)));
+  }
+
+  private GraphBuilder.CompressedRows<V, E> compress(GraphBuilder.Rows<V, E> rows) {
+    return new GraphBuilder<V, E>().compressedRows(rows, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads the vertices, the edges and the rows of the adjacency stored in a given file.
+   */
+  @SuppressWarnings("unchecked")
+  private GraphBuilder.Rows<V, E> read(Path path) throws GraphException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(channel), BinaryGraphFormat.BUFFER_SIZE))) {
+      if (in.readInt() != BinaryGraphFormat.MAGIC) {
+        throw new GraphException(path + " is not a graph file.");
+      }
+      int version = in.readInt();
+      if (version != BinaryGraphFormat.VERSION) {
+        throw new GraphException("Unsupported version " + version + " of the graph file " + path);
+      }
+      int n = in.readInt();
+      int m = in.readInt();
+      int entries = in.readInt();
+      in.readInt();
+      long vertexPositionsPosition = in.readLong();
+      // The sections implied by the sizes must fit in the file before they are allocated
+      long edgeTypesEnd = BinaryGraphFormat.HEADER_SIZE + 4L * (n + 1L) + 8L * entries + 9L * m;
+      if (n < 0 || m < 0 || entries < 0 || vertexPositionsPosition < edgeTypesEnd) {
+        throw new GraphException("Invalid sizes in the header of the graph file " + path);
+      }
+      if (vertexPositionsPosition + 8L * (n + 1L) + 8L * (m + 1L) > channel.size()) {
+        throw new GraphException("The graph file " + path + " is truncated.");
+      }
+      int[] offsets = BinaryGraphFormat.readInts(in, n + 1);
+      int[] targets = BinaryGraphFormat.readInts(in, entries);
+      int[] edgeRefs = BinaryGraphFormat.readInts(in, entries);
+      int[] edgeSources = BinaryGraphFormat.readInts(in, m);
+      int[] edgeTargets = BinaryGraphFormat.readInts(in, m);
+      byte[] edgeTypes = new byte[m];
+      in.readFully(edgeTypes);
+      if (!isValid(n, m, entries, offsets, targets, edgeRefs, edgeSources, edgeTargets)) {
+        throw new GraphException("Corrupted adjacency in the graph file " + path);
+      }
+
+      VertexRegistry<V> vertexIndex = new VertexRegistry<>(n);
+      for (int u = 0; u < n; u++) {
+        if (vertexIndex.register(codec.readVertex(in)) != u) {
+          throw new GraphException("Repeated vertex in the graph file " + path);
+        }
+      }
+      E[] edges = (E[]) new Edge<?>[m];
+      for (int j = 0; j < m; j++) {
+        EdgeType edgeType = BinaryGraphFormat.edgeType(edgeTypes[j]);
+        if (edgeType == null) {
+          throw new GraphException("Invalid edge type in the graph file " + path);
+        }
+        edges[j] = codec.readEdge(vertexIndex.getVertex(edgeSources[j]),
+            vertexIndex.getVertex(edgeTargets[j]), edgeType, in);
+      }
+      return new GraphBuilder.Rows<>(vertexIndex, edges, offsets, targets, edgeRefs);
+    } catch (EOFException e) {
+      throw new GraphException("The graph file " + path + " is truncated.", e);
+    } catch (IOException e) {
+      throw new GraphException("Could not read the graph from " + path, e);
+    }
+  }
+
+  private static boolean isValid(int n, int m, int entries, int[] offsets, int[] targets,
+      int[] edgeRefs, int[] edgeSources, int[] edgeTargets) {
+    if (offsets[0] != 0 || offsets[n] != entries) {
+      return false;
+    }
+    for (int u = 0; u < n; u++) {
+      if (offsets[u] > offsets[u + 1]) {
+        return false;
+      }
+    }
+    for (int k = 0; k < entries; k++) {
+      if (targets[k] < 0 || targets[k] >= n || edgeRefs[k] < 0 || edgeRefs[k] >= m) {
+        return false;
+      }
+    }
+    for (int j = 0; j < m; j++) {
+      if (edgeSources[j] < 0 || edgeSources[j] >= n || edgeTargets[j] < 0
+          || edgeTargets[j] >= n) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,193 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.ElementCodec;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.exception.GraphException;
+
+/**
+ * Writes graphs to binary files that can be loaded by the {@link BinaryGraphReader} without
+ * inserting the edges one by one. The adjacency is stored in compressed rows, the vertices are
+ * numbered in the order of their ids in the graph and only the edges present in the adjacency are
+ * stored.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.immutable.BinaryGraphFormat
+ */
+public class BinaryGraphWriter<V extends Vertex, E extends Edge<V>> {
+
+  private final ElementCodec<V, E> codec;
+
+  public BinaryGraphWriter(ElementCodec<V, E> codec) {
+    this.codec = codec;
+  }
+
+  /**
+   * Writes a given graph to a file, replacing its content.
+   */
+  public void write(Graph<V, E> graph, Path path) throws GraphException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      write(graph, channel);
+    } catch (IOException e) {
+      throw new GraphException("Could not write the graph to " + path, e);
+    }
+  }
+
+  private void write(Graph<V, E> graph, FileChannel channel) throws IOException {
+    VertexIndex<V> index = graph.getVertexIndex();
+    int bound = index.getIdBound();
+    int[] fileIds = new int[bound];
+    List<V> vertices = new ArrayList<>(index.size());
+    for (int id = 0; id < bound; id++) {
+      V v = index.getVertex(id);
+      fileIds[id] = v == null ? -1 : vertices.size();
+      if (v != null) {
+        vertices.add(v);
+      }
+    }
+    int n = vertices.size();
+    int[] offsets = new int[n + 1];
+    RowCollector rows = new RowCollector(index, fileIds);
+    for (int u = 0; u < n; u++) {
+      graph.forEachIncident(vertices.get(u), rows);
+      offsets[u + 1] = rows.size;
+    }
+    int m = rows.edges.size();
+    int[] edgeSources = new int[m];
+    int[] edgeTargets = new int[m];
+    byte[] edgeTypes = new byte[m];
+    for (int j = 0; j < m; j++) {
+      E edge = rows.edges.get(j);
+      edgeSources[j] = fileIds[index.getId(edge.getSource())];
+      edgeTargets[j] = fileIds[index.getId(edge.getTarget())];
+      edgeTypes[j] = BinaryGraphFormat.typeCode(edge.getEdgeType());
+    }
+
+    CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(
+        Channels.newOutputStream(channel), BinaryGraphFormat.BUFFER_SIZE));
+    DataOutputStream out = new DataOutputStream(counter);
+    out.write(new byte[BinaryGraphFormat.HEADER_SIZE]);
+    BinaryGraphFormat.writeInts(out, offsets, n + 1);
+    BinaryGraphFormat.writeInts(out, rows.targets, rows.size);
+    BinaryGraphFormat.writeInts(out, rows.edgeRefs, rows.size);
+    BinaryGraphFormat.writeInts(out, edgeSources, m);
+    BinaryGraphFormat.writeInts(out, edgeTargets, m);
+    out.write(edgeTypes);
+    long[] vertexPositions = new long[n + 1];
+    for (int u = 0; u < n; u++) {
+      vertexPositions[u] = counter.count;
+      codec.writeVertex(vertices.get(u), out);
+    }
+    vertexPositions[n] = counter.count;
+    long[] edgePositions = new long[m + 1];
+    for (int j = 0; j < m; j++) {
+      edgePositions[j] = counter.count;
+      codec.writeEdge(rows.edges.get(j), out);
+    }
+    edgePositions[m] = counter.count;
+    long positionsPosition = counter.count;
+    BinaryGraphFormat.writeLongs(out, vertexPositions);
+    BinaryGraphFormat.writeLongs(out, edgePositions);
+    out.flush();
+
+    ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_SIZE);
+    header.putInt(BinaryGraphFormat.MAGIC).putInt(BinaryGraphFormat.VERSION).putInt(n).putInt(m)
+        .putInt(rows.size).putInt(0).putLong(positionsPosition).flip();
+    long position = 0;
+    while (header.hasRemaining()) {
+      position += channel.write(header, position);
+    }
+  }
+
+  /**
+   * Collects the entries of the rows of the adjacency, numbering the edges in the order they are
+   * found.
+   */
+  private final class RowCollector implements BiConsumer<V, E> {
+
+    private final VertexIndex<V> index;
+    private final int[] fileIds;
+    private final Map<E, Integer> edgeIds = new HashMap<>();
+    private final List<E> edges = new ArrayList<>();
+    private int[] targets = new int[16];
+    private int[] edgeRefs = new int[16];
+    private int size;
+
+    RowCollector(VertexIndex<V> index, int[] fileIds) {
+      this.index = index;
+      this.fileIds = fileIds;
+    }
+
+    @Override
+    public void accept(V w, E edge) {
+      if (size == targets.length) {
+        targets = Arrays.copyOf(targets, size * 2);
+        edgeRefs = Arrays.copyOf(edgeRefs, size * 2);
+      }
+      Integer id = edgeIds.get(edge);
+      if (id == null) {
+        id = edges.size();
+        edgeIds.put(edge, id);
+        edges.add(edge);
+      }
+      targets[size] = fileIds[index.getId(w)];
+      edgeRefs[size] = id;
+      size++;
+    }
+  }
+
+  /**
+   * Output stream that counts the bytes written, which gives the position of the elements in the
+   * file.
+   */
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
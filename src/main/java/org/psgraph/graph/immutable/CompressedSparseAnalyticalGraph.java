@@ -0,0 +1,77 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import org.psgraph.graph.AnalyticalGraph;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Vertex;
+
+/**
+ * The compressed sparse analytical graph is a specialization of the compressed sparse graph.
+ * Besides the successors' rows, it stores the transposed adjacency (the predecessors of every
+ * vertex) in the same compressed format, which allows predecessors' analysis without searching the
+ * graph.
+ *
+ * This immutable graph does not allow inclusion or removal of new vertices or edges after the
+ * instantiation of the class. Thus, it may be used safely by multiple threads.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.immutable.CompressedSparseGraph
+ */
+public class CompressedSparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
+    CompressedSparseGraph<V, E> implements AnalyticalGraph<V, E> {
+
+  protected final int[] predecessorOffsets;
+  protected final int[] predecessors;
+
+  public CompressedSparseAnalyticalGraph(Collection<E> edges) {
+    this(GraphBuilder.compress(edges));
+  }
+
+  /**
+   * Creates a graph over compressed rows already built by the {@link GraphBuilder}.
+   */
+  CompressedSparseAnalyticalGraph(GraphBuilder.CompressedRows<V, E> rows) {
+    super(rows);
+    int n = vertexIndex.size();
+    this.predecessorOffsets = new int[n + 1];
+    for (int target : targets) {
+      predecessorOffsets[target + 1]++;
+    }
+    for (int i = 0; i < n; i++) {
+      predecessorOffsets[i + 1] += predecessorOffsets[i];
+    }
+    // Rows are visited in ascending order, so each predecessors' row is filled already sorted.
+    this.predecessors = new int[targets.length];
+    int[] cursor = Arrays.copyOf(predecessorOffsets, n);
+    for (int u = 0; u < n; u++) {
+      for (int pos = offsets[u]; pos < offsets[u + 1]; pos++) {
+        predecessors[cursor[targets[pos]]++] = u;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getPredecessors(V v) {
+    int u = indexOf(v);
+    if (u == -1 || predecessorOffsets[u] == predecessorOffsets[u + 1]) {
+      return null;
+    }
+    return new RowSet(predecessorOffsets, predecessors, u);
+  }
+}
@@ -0,0 +1,365 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.VertexRegistry;
+
+/**
+ * A compressed sparse row (CSR) graph. Vertices are numbered densely from 0 to n-1 in the order
+ * they first appear in the edge collection (these numbers are the ids of the graph's vertex index)
+ * and the adjacency of all vertices is stored in primitive arrays: the successors of the vertex i
+ * are stored in <i>targets[offsets[i]..offsets[i+1]-1]</i>, sorted by vertex number, and the edge
+ * that leads to each of them is stored at the same position of <i>edgeRefs</i>. Compared to the
+ * map based {@link SparseGraph}, this representation does not allocate one map per vertex, which
+ * reduces considerably the memory footprint of big graphs and improves the locality of the
+ * searches. Edge lookups cost O(log d), where d is the degree of the source vertex.
+ *
+ * As in the map based representation, at most one edge is kept between an ordered pair of vertices.
+ * When the edge collection contains more than one edge for the same pair, the last one prevails.
+ *
+ * This immutable graph does not allow inclusion or removal of new vertices or edges after the
+ * instantiation of the class. Thus, it may be used safely by multiple threads.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.immutable.SparseGraph
+ */
+public class CompressedSparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V, E> {
+
+  protected final VertexRegistry<V> vertexIndex;
+  protected final E[] edgeTable;
+  protected final int[] offsets;
+  protected final int[] targets;
+  protected final int[] edgeRefs;
+
+  private final Set<V> vertexSet;
+  private final Set<E> edgeSet;
+
+  public CompressedSparseGraph(Collection<E> edges) {
+    this(GraphBuilder.compress(edges));
+  }
+
+  /**
+   * Creates a graph over compressed rows already built by the {@link GraphBuilder}.
+   */
+  CompressedSparseGraph(GraphBuilder.CompressedRows<V, E> rows) {
+    this.vertexIndex = rows.vertexIndex;
+    this.edgeTable = rows.edgeTable;
+    this.offsets = rows.offsets;
+    this.targets = rows.targets;
+    this.edgeRefs = rows.edgeRefs;
+    this.vertexSet = new VertexSet();
+    this.edgeSet = new EdgeSet();
+  }
+
+  /**
+   * Gets the number of a given vertex or -1 if it does not belong to this graph.
+   */
+  protected int indexOf(V v) {
+    return vertexIndex.getId(v);
+  }
+
+  /**
+   * Gets the position of the entry u->v in the adjacency arrays or -1 if there is no such entry.
+   */
+  protected int positionOf(int u, int v) {
+    int pos = Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v);
+    return pos < 0 ? -1 : pos;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public E getEdge(V from, V to) {
+    int u = indexOf(from);
+    int v = indexOf(to);
+    if (u == -1 || v == -1) {
+      return null;
+    }
+    int pos = positionOf(u, v);
+    return pos == -1 ? null : edgeTable[edgeRefs[pos]];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> getEdges(V v) {
+    int u = indexOf(v);
+    if (u == -1) {
+      return Collections.emptyList();
+    }
+    return new AbstractCollection<E>() {
+      @Override
+      public Iterator<E> iterator() {
+        return new RowIterator<E>(offsets[u], offsets[u + 1]) {
+          @Override
+          E element(int pos) {
+            return edgeTable[edgeRefs[pos]];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return offsets[u + 1] - offsets[u];
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getVertices() {
+    return vertexSet;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<E> getEdges() {
+    return edgeSet;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getAdjacentVertices(V v) {
+    return getSuccessors(v);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachIncident(V v, BiConsumer<? super V, ? super E> action) {
+    int u = indexOf(v);
+    if (u == -1) {
+      return;
+    }
+    for (int pos = offsets[u]; pos < offsets[u + 1]; pos++) {
+      action.accept(vertexIndex.getVertex(targets[pos]), edgeTable[edgeRefs[pos]]);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getSuccessors(V v) {
+    int u = indexOf(v);
+    if (u == -1) {
+      return Collections.emptySet();
+    }
+    return new RowSet(offsets, targets, u);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(V v, Consumer<? super V> action) {
+    int u = indexOf(v);
+    if (u == -1) {
+      return;
+    }
+    for (int pos = offsets[u]; pos < offsets[u + 1]; pos++) {
+      action.accept(vertexIndex.getVertex(targets[pos]));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(int id, IntConsumer action) {
+    if (id < 0 || id >= offsets.length - 1) {
+      return;
+    }
+    for (int pos = offsets[id]; pos < offsets[id + 1]; pos++) {
+      action.accept(targets[pos]);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDegree(V v) {
+    int u = indexOf(v);
+    return u == -1 ? 0 : offsets[u + 1] - offsets[u];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public VertexIndex<V> getVertexIndex() {
+    return vertexIndex;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() {
+    return 0;
+  }
+
+  /**
+   * Read only view of a row of an adjacency structure, i.e. the vertices stored in
+   * <i>rowTargets[rowOffsets[u]..rowOffsets[u+1]-1]</i>.
+   */
+  protected class RowSet extends AbstractSet<V> {
+
+    private final int[] rowTargets;
+    private final int start;
+    private final int end;
+
+    protected RowSet(int[] rowOffsets, int[] rowTargets, int u) {
+      this.rowTargets = rowTargets;
+      this.start = rowOffsets[u];
+      this.end = rowOffsets[u + 1];
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new RowIterator<V>(start, end) {
+        @Override
+        V element(int pos) {
+          return vertexIndex.getVertex(rowTargets[pos]);
+        }
+      };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Vertex)) {
+        return false;
+      }
+      int v = indexOf((V) o);
+      return v != -1 && Arrays.binarySearch(rowTargets, start, end, v) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+  }
+
+  /**
+   * Read only view of the vertices of this graph.
+   */
+  private class VertexSet extends AbstractSet<V> {
+
+    @Override
+    public Iterator<V> iterator() {
+      return new RowIterator<V>(0, vertexIndex.size()) {
+        @Override
+        V element(int pos) {
+          return vertexIndex.getVertex(pos);
+        }
+      };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      return o instanceof Vertex && indexOf((V) o) != -1;
+    }
+
+    @Override
+    public int size() {
+      return vertexIndex.size();
+    }
+  }
+
+  /**
+   * Read only view of the edges of this graph.
+   */
+  private class EdgeSet extends AbstractSet<E> {
+
+    @Override
+    public Iterator<E> iterator() {
+      return new RowIterator<E>(0, edgeTable.length) {
+        @Override
+        E element(int pos) {
+          return edgeTable[pos];
+        }
+      };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Edge)) {
+        return false;
+      }
+      E e = (E) o;
+      return e.equals(getEdge(e.getSource(), e.getTarget()))
+          || e.equals(getEdge(e.getTarget(), e.getSource()));
+    }
+
+    @Override
+    public int size() {
+      return edgeTable.length;
+    }
+  }
+
+  /**
+   * Iterates over the positions [start, end) of one of the arrays of this graph.
+   */
+  private abstract static class RowIterator<T> implements Iterator<T> {
+
+    private int pos;
+    private final int end;
+
+    RowIterator(int start, int end) {
+      this.pos = start;
+      this.end = end;
+    }
+
+    abstract T element(int pos);
+
+    @Override
+    public boolean hasNext() {
+      return pos < end;
+    }
+
+    @Override
+    public T next() {
+      if (pos >= end) {
+        throw new NoSuchElementException();
+      }
+      return element(pos++);
+    }
+  }
+}
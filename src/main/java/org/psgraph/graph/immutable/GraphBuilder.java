@@ -0,0 +1,384 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.RangeTask;
+import org.psgraph.graph.SparseRepresentation;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexRegistry;
+
+/**
+ * Builds immutable graphs in bulk. Instead of inserting the edges one by one, the builder numbers
+ * the vertices, groups the entries of the adjacency by source vertex with a counting sort and then
+ * builds the adjacency of the vertices in parallel, each task owning a range of source vertices.
+ * All the maps and sets are allocated with their final sizes, so they are never rehashed. The
+ * result is identical to the graph built by the constructors that receive the edge collection.
+ *
+ * Builders are not thread safe and may be reused to build several graphs.
+ *
+ * @author Wilson de Carvalho
+ */
+public class GraphBuilder<V extends Vertex, E extends Edge<V>> {
+
+  private final int expectedVertices;
+  private final List<E> edges;
+  private SparseRepresentation sparseRepresentation = SparseRepresentation.Hash;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  public GraphBuilder() {
+    this(16, 16);
+  }
+
+  /**
+   * @param expectedVertices Expected number of vertices, used to size the vertex index.
+   * @param expectedEdges Expected number of edges, used to size the edge buffer.
+   */
+  public GraphBuilder(int expectedVertices, int expectedEdges) {
+    this.expectedVertices = expectedVertices;
+    this.edges = new ArrayList<>(expectedEdges);
+  }
+
+  /**
+   * Builds the compressed rows of a given edge collection in the calling thread.
+   */
+  static <V extends Vertex, E extends Edge<V>> CompressedRows<V, E> compress(
+      Collection<E> edges) {
+    GraphBuilder<V, E> builder = new GraphBuilder<V, E>(16, edges.size()).addEdges(edges);
+    return builder.compressedRows(builder.rows(), null);
+  }
+
+  /**
+   * Sets the representation of the map based graphs. The default is the hash representation.
+   */
+  public GraphBuilder<V, E> withSparseRepresentation(SparseRepresentation sparseRepresentation) {
+    this.sparseRepresentation = sparseRepresentation;
+    return this;
+  }
+
+  /**
+   * Sets the pool where the graphs are built. The default is the common pool.
+   */
+  public GraphBuilder<V, E> withPool(ForkJoinPool pool) {
+    this.pool = pool;
+    return this;
+  }
+
+  public GraphBuilder<V, E> addEdge(E edge) {
+    edges.add(edge);
+    return this;
+  }
+
+  public GraphBuilder<V, E> addEdges(Collection<? extends E> edges) {
+    this.edges.addAll(edges);
+    return this;
+  }
+
+  /**
+   * Builds a map based graph with the edges added.
+   */
+  public SparseGraph<V, E> buildSparseGraph() {
+    return buildSparseGraph(rows());
+  }
+
+  SparseGraph<V, E> buildSparseGraph(Rows<V, E> rows) {
+    return new SparseGraph<>(sparseRepresentation, adjacency(rows), edgeSet(rows),
+        rows.vertexIndex);
+  }
+
+  /**
+   * Builds a map based analytical graph with the edges added.
+   */
+  public SparseAnalyticalGraph<V, E> buildSparseAnalyticalGraph() {
+    return buildSparseAnalyticalGraph(rows());
+  }
+
+  SparseAnalyticalGraph<V, E> buildSparseAnalyticalGraph(Rows<V, E> rows) {
+    return new SparseAnalyticalGraph<>(sparseRepresentation, adjacency(rows), edgeSet(rows),
+        rows.vertexIndex, predecessors(rows));
+  }
+
+  /**
+   * Builds a compressed sparse row graph with the edges added.
+   */
+  public CompressedSparseGraph<V, E> buildCompressedSparseGraph() {
+    return new CompressedSparseGraph<>(compressedRows(rows(), pool));
+  }
+
+  /**
+   * Builds a compressed sparse row analytical graph with the edges added.
+   */
+  public CompressedSparseAnalyticalGraph<V, E> buildCompressedSparseAnalyticalGraph() {
+    return new CompressedSparseAnalyticalGraph<>(compressedRows(rows(), pool));
+  }
+
+  private static int capacityFor(int expectedSize) {
+    return (int) (expectedSize / 0.75f) + 1;
+  }
+
+  private <T1, T2> Map<T1, T2> newMap(int expectedSize) {
+    if (sparseRepresentation == SparseRepresentation.Hash) {
+      return new HashMap<>(capacityFor(expectedSize));
+    } else {
+      return new LinkedHashMap<>(capacityFor(expectedSize));
+    }
+  }
+
+  private <T> Set<T> newSet(int expectedSize) {
+    if (sparseRepresentation == SparseRepresentation.Hash) {
+      return new HashSet<>(capacityFor(expectedSize));
+    } else {
+      return new LinkedHashSet<>(capacityFor(expectedSize));
+    }
+  }
+
+  /**
+   * Numbers the vertices in the order they first appear in the edges and groups the entries of the
+   * adjacency by source vertex, keeping the order of the edges within each group. Undirected edges
+   * produce one entry for each one of their vertices.
+   */
+  @SuppressWarnings("unchecked")
+  private Rows<V, E> rows() {
+    E[] input = (E[]) edges.toArray(new Edge<?>[edges.size()]);
+    VertexRegistry<V> vertexIndex = new VertexRegistry<>(expectedVertices);
+    int[] sources = new int[input.length];
+    int[] destinations = new int[input.length];
+    for (int i = 0; i < input.length; i++) {
+      sources[i] = vertexIndex.register(input[i].getSource());
+      destinations[i] = vertexIndex.register(input[i].getTarget());
+    }
+
+    // Counting sort of the edge entries by source vertex. Undirected edges are stored twice.
+    int n = vertexIndex.size();
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < input.length; i++) {
+      offsets[sources[i] + 1]++;
+      if (input[i].getEdgeType() == EdgeType.Undirected) {
+        offsets[destinations[i] + 1]++;
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] targets = new int[offsets[n]];
+    int[] entries = new int[offsets[n]];
+    int[] cursor = Arrays.copyOf(offsets, n);
+    for (int i = 0; i < input.length; i++) {
+      int pos = cursor[sources[i]]++;
+      targets[pos] = destinations[i];
+      entries[pos] = i;
+      if (input[i].getEdgeType() == EdgeType.Undirected) {
+        pos = cursor[destinations[i]]++;
+        targets[pos] = sources[i];
+        entries[pos] = i;
+      }
+    }
+    return new Rows<>(vertexIndex, input, offsets, targets, entries);
+  }
+
+  /**
+   * Builds the adjacency map of every vertex in parallel and then the map of the graph.
+   */
+  private Map<V, Map<V, E>> adjacency(Rows<V, E> rows) {
+    int n = rows.vertexIndex.size();
+    @SuppressWarnings("unchecked")
+    Map<V, E>[] maps = (Map<V, E>[]) new Map<?, ?>[n];
+    RangeTask.forEachRange(pool, n, (from, to) -> {
+      for (int u = from; u < to; u++) {
+        Map<V, E> map = newMap(rows.offsets[u + 1] - rows.offsets[u]);
+        for (int pos = rows.offsets[u]; pos < rows.offsets[u + 1]; pos++) {
+          map.put(rows.vertexIndex.getVertex(rows.targets[pos]), rows.input[rows.entries[pos]]);
+        }
+        maps[u] = map;
+      }
+    });
+    Map<V, Map<V, E>> ret = newMap(n);
+    for (int u = 0; u < n; u++) {
+      ret.put(rows.vertexIndex.getVertex(u), maps[u]);
+    }
+    return ret;
+  }
+
+  /**
+   * Builds the predecessors of every vertex in parallel, from the entries grouped by target vertex.
+   */
+  private Map<V, Set<V>> predecessors(Rows<V, E> rows) {
+    int n = rows.vertexIndex.size();
+    int[] offsets = new int[n + 1];
+    for (int target : rows.targets) {
+      offsets[target + 1]++;
+    }
+    for (int i = 0; i < n; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] sources = new int[rows.targets.length];
+    int[] cursor = Arrays.copyOf(offsets, n);
+    for (int u = 0; u < n; u++) {
+      for (int pos = rows.offsets[u]; pos < rows.offsets[u + 1]; pos++) {
+        sources[cursor[rows.targets[pos]]++] = u;
+      }
+    }
+    @SuppressWarnings("unchecked")
+    Set<V>[] sets = (Set<V>[]) new Set<?>[n];
+    RangeTask.forEachRange(pool, n, (from, to) -> {
+      for (int v = from; v < to; v++) {
+        if (offsets[v] < offsets[v + 1]) {
+          Set<V> set = new HashSet<>(capacityFor(offsets[v + 1] - offsets[v]));
+          for (int pos = offsets[v]; pos < offsets[v + 1]; pos++) {
+            set.add(rows.vertexIndex.getVertex(sources[pos]));
+          }
+          sets[v] = set;
+        }
+      }
+    });
+    Map<V, Set<V>> ret = new HashMap<>(capacityFor(n));
+    for (int v = 0; v < n; v++) {
+      if (sets[v] != null) {
+        ret.put(rows.vertexIndex.getVertex(v), sets[v]);
+      }
+    }
+    return ret;
+  }
+
+  private Set<E> edgeSet(Rows<V, E> rows) {
+    Set<E> ret = newSet(rows.input.length);
+    Collections.addAll(ret, rows.input);
+    return ret;
+  }
+
+  /**
+   * Builds the compressed rows of the graph: each row is sorted by target and the repeated targets
+   * are removed, keeping the last edge informed. Rows are sorted in parallel when a pool is
+   * informed.
+   */
+  @SuppressWarnings("unchecked")
+  CompressedRows<V, E> compressedRows(Rows<V, E> rows, ForkJoinPool pool) {
+    int n = rows.vertexIndex.size();
+    int[] sortedTargets = new int[rows.targets.length];
+    int[] sortedEntries = new int[rows.entries.length];
+    int[] sizes = new int[n];
+    RangeTask.forEachRange(pool, n, (from, to) -> {
+      long[] keys = new long[16];
+      for (int u = from; u < to; u++) {
+        int start = rows.offsets[u];
+        int degree = rows.offsets[u + 1] - start;
+        if (keys.length < degree) {
+          keys = new long[Math.max(degree, keys.length * 2)];
+        }
+        for (int k = 0; k < degree; k++) {
+          keys[k] = ((long) rows.targets[start + k] << 32) | k;
+        }
+        Arrays.sort(keys, 0, degree);
+        int size = 0;
+        for (int k = 0; k < degree; k++) {
+          if (k + 1 < degree && (keys[k] >>> 32) == (keys[k + 1] >>> 32)) {
+            continue;
+          }
+          int pos = start + (int) keys[k];
+          sortedTargets[start + size] = rows.targets[pos];
+          sortedEntries[start + size] = rows.entries[pos];
+          size++;
+        }
+        sizes[u] = size;
+      }
+    });
+    int[] offsets = new int[n + 1];
+    for (int u = 0; u < n; u++) {
+      offsets[u + 1] = offsets[u] + sizes[u];
+    }
+    int size = offsets[n];
+    int[] targets = new int[size];
+    int[] kept = new int[size];
+    RangeTask.forEachRange(pool, n, (from, to) -> {
+      for (int u = from; u < to; u++) {
+        System.arraycopy(sortedTargets, rows.offsets[u], targets, offsets[u], sizes[u]);
+        System.arraycopy(sortedEntries, rows.offsets[u], kept, offsets[u], sizes[u]);
+      }
+    });
+
+    // Only the edges that remained in the adjacency are kept in the edge table.
+    int[] edgeIds = new int[rows.input.length];
+    Arrays.fill(edgeIds, -1);
+    int edgeCount = 0;
+    for (int k = 0; k < size; k++) {
+      if (edgeIds[kept[k]] == -1) {
+        edgeIds[kept[k]] = edgeCount++;
+      }
+    }
+    E[] edgeTable = (E[]) new Edge<?>[edgeCount];
+    int[] edgeRefs = new int[size];
+    for (int k = 0; k < size; k++) {
+      int id = edgeIds[kept[k]];
+      edgeRefs[k] = id;
+      edgeTable[id] = rows.input[kept[k]];
+    }
+    return new CompressedRows<>(rows.vertexIndex, edgeTable, offsets, targets, edgeRefs);
+  }
+
+  /**
+   * Entries of the adjacency grouped by source vertex: the entries of the vertex u are stored in
+   * <i>targets[offsets[u]..offsets[u+1]-1]</i>, and the position of the edge of each entry in the
+   * input is stored at the same position of <i>entries</i>.
+   */
+  static final class Rows<V extends Vertex, E extends Edge<V>> {
+
+    final VertexRegistry<V> vertexIndex;
+    final E[] input;
+    final int[] offsets;
+    final int[] targets;
+    final int[] entries;
+
+    Rows(VertexRegistry<V> vertexIndex, E[] input, int[] offsets, int[] targets, int[] entries) {
+      this.vertexIndex = vertexIndex;
+      this.input = input;
+      this.offsets = offsets;
+      this.targets = targets;
+      this.entries = entries;
+    }
+  }
+
+  /**
+   * The arrays of a compressed sparse row graph.
+   *
+   * @see org.psgraph.graph.immutable.CompressedSparseGraph
+   */
+  static final class CompressedRows<V extends Vertex, E extends Edge<V>> {
+
+    final VertexRegistry<V> vertexIndex;
+    final E[] edgeTable;
+    final int[] offsets;
+    final int[] targets;
+    final int[] edgeRefs;
+
+    CompressedRows(VertexRegistry<V> vertexIndex, E[] edgeTable, int[] offsets, int[] targets,
+        int[] edgeRefs) {
+      this.vertexIndex = vertexIndex;
+      this.edgeTable = edgeTable;
+      this.offsets = offsets;
+      this.targets = targets;
+      this.edgeRefs = edgeRefs;
+    }
+  }
+}
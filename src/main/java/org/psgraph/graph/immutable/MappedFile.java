@@ -0,0 +1,186 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only file mapped in memory. Since a single mapped buffer cannot exceed 2GB, the file is
+ * mapped in segments of 1GB. Each segment also maps the first bytes of the next one, thus any
+ * number may be read from the segment where it starts. All the reads are absolute, so the file may
+ * be read by multiple threads.
+ *
+ * @author Wilson de Carvalho
+ */
+final class MappedFile {
+
+  private static final int SEGMENT_BITS = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+  private static final int SEGMENT_MASK = (int) SEGMENT_SIZE - 1;
+  /**
+   * Number of bytes of the next segment mapped by each segment, the size of the largest number.
+   */
+  private static final int OVERLAP = 8;
+
+  private final MappedByteBuffer[] segments;
+  private final long size;
+
+  MappedFile(FileChannel channel) throws IOException {
+    this.size = channel.size();
+    int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+    this.segments = new MappedByteBuffer[count];
+    for (int i = 0; i < count; i++) {
+      long start = (long) i << SEGMENT_BITS;
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+          Math.min(size - start, SEGMENT_SIZE + OVERLAP));
+    }
+  }
+
+  long size() {
+    return size;
+  }
+
+  byte getByte(long position) {
+    return segments[(int) (position >>> SEGMENT_BITS)].get((int) position & SEGMENT_MASK);
+  }
+
+  int getInt(long position) {
+    return segments[(int) (position >>> SEGMENT_BITS)].getInt((int) position & SEGMENT_MASK);
+  }
+
+  long getLong(long position) {
+    return segments[(int) (position >>> SEGMENT_BITS)].getLong((int) position & SEGMENT_MASK);
+  }
+
+  /**
+   * Gets an input that reads the file sequentially from a given position.
+   */
+  DataInput input(long position) {
+    return new Input(position);
+  }
+
+  /**
+   * Sequential input over the mapped file, used to decode the elements of the graph.
+   */
+  private final class Input implements DataInput {
+
+    private long position;
+
+    Input(long position) {
+      this.position = position;
+    }
+
+    private void require(int length) throws EOFException {
+      if (position + length > size) {
+        throw new EOFException();
+      }
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+      readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+      require(len);
+      for (int i = 0; i < len; i++) {
+        b[off + i] = getByte(position++);
+      }
+    }
+
+    @Override
+    public int skipBytes(int n) {
+      int skipped = (int) Math.max(0, Math.min(n, size - position));
+      position += skipped;
+      return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+      return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      require(1);
+      return getByte(position++);
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+      return readByte() & 0xff;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+      require(2);
+      short ret = (short) ((getByte(position) << 8) | (getByte(position + 1) & 0xff));
+      position += 2;
+      return ret;
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+      return readShort() & 0xffff;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+      return (char) readShort();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+      require(4);
+      int ret = getInt(position);
+      position += 4;
+      return ret;
+    }
+
+    @Override
+    public long readLong() throws IOException {
+      require(8);
+      long ret = getLong(position);
+      position += 8;
+      return ret;
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+      return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+      return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Not supported, as in the {@link DataInputStream}, where it is deprecated.
+     */
+    @Override
+    public String readLine() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+      return DataInputStream.readUTF(this);
+    }
+  }
+}
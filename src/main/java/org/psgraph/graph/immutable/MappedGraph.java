@@ -0,0 +1,509 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.immutable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.ElementCodec;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.exception.GraphException;
+
+/**
+ * A graph read in place from a file written by the {@link BinaryGraphWriter}. The file is mapped in
+ * memory and nothing of the graph is loaded in the Java heap: the adjacency is read straight from
+ * the mapped rows, and the vertices and edges are decoded by the element codec only when they are
+ * requested. The searches that walk the graph by vertex ids, like the indexed searches, do not
+ * decode any element but the ones they return. The lookup of the id of a vertex uses a hash table
+ * that is built when the graph is opened and stored outside the heap as well, which limits the
+ * graph to {@link #MAX_VERTICES} vertices (about 67 million). The adjacency, the edges and the
+ * vertices of the file are validated when it is opened, in a single pass over the mapped file.
+ *
+ * Since the elements are decoded on demand, every call may return a new instance of the same vertex
+ * or edge, thus the codec must produce elements that are equal to the ones written. The rows of the
+ * file are not sorted, so edge lookups cost O(d), where d is the degree of the source vertex.
+ *
+ * This immutable graph may be used safely by multiple threads. The file must not be modified while
+ * the graph is in use.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.immutable.BinaryGraphFormat
+ */
+public class MappedGraph<V extends Vertex, E extends Edge<V>> implements Graph<V, E> {
+
+  /**
+   * Maximum number of vertices, bounded by the size of the direct buffer of the hash table, which
+   * keeps at least two slots of 8 bytes per vertex.
+   */
+  public static final int MAX_VERTICES = 1 << 26;
+
+  private final MappedFile file;
+  private final ElementCodec<V, E> codec;
+  private final int vertexCount;
+  private final int edgeCount;
+  private final long offsetsPosition;
+  private final long targetsPosition;
+  private final long edgeRefsPosition;
+  private final long edgeSourcesPosition;
+  private final long edgeTargetsPosition;
+  private final long edgeTypesPosition;
+  private final long vertexPositionsPosition;
+  private final long edgePositionsPosition;
+  /**
+   * Open addressing table with the hash and the id (plus one) of each vertex, in 8 bytes per slot.
+   */
+  private final ByteBuffer table;
+  private final int tableMask;
+  private final VertexIndex<V> vertexIndex = new MappedIndex();
+
+  public MappedGraph(Path path, ElementCodec<V, E> codec) throws GraphException {
+    this.file = map(path);
+    this.codec = codec;
+    if (file.size() < BinaryGraphFormat.HEADER_SIZE || file.getInt(0) != BinaryGraphFormat.MAGIC) {
+      throw new GraphException(path + " is not a graph file.");
+    }
+    int version = file.getInt(4);
+    if (version != BinaryGraphFormat.VERSION) {
+      throw new GraphException("Unsupported version " + version + " of the graph file " + path);
+    }
+    this.vertexCount = file.getInt(8);
+    this.edgeCount = file.getInt(12);
+    int entries = file.getInt(16);
+    this.offsetsPosition = BinaryGraphFormat.HEADER_SIZE;
+    this.targetsPosition = offsetsPosition + 4L * (vertexCount + 1);
+    this.edgeRefsPosition = targetsPosition + 4L * entries;
+    this.edgeSourcesPosition = edgeRefsPosition + 4L * entries;
+    this.edgeTargetsPosition = edgeSourcesPosition + 4L * edgeCount;
+    this.edgeTypesPosition = edgeTargetsPosition + 4L * edgeCount;
+    this.vertexPositionsPosition = file.getLong(24);
+    this.edgePositionsPosition = vertexPositionsPosition + 8L * (vertexCount + 1);
+    if (vertexCount < 0 || edgeCount < 0 || entries < 0
+        || vertexPositionsPosition < edgeTypesPosition + edgeCount
+        || edgePositionsPosition + 8L * (edgeCount + 1) > file.size()) {
+      throw new GraphException("Invalid sizes in the header of the graph file " + path);
+    }
+    if (vertexCount > MAX_VERTICES) {
+      throw new GraphException("Too many vertices in the graph file " + path);
+    }
+    if (!isValid(entries)) {
+      throw new GraphException("Corrupted adjacency in the graph file " + path);
+    }
+    int tableSize = 2;
+    while (tableSize < 2 * vertexCount) {
+      tableSize <<= 1;
+    }
+    this.table = ByteBuffer.allocateDirect(tableSize * 8);
+    this.tableMask = tableSize - 1;
+    try {
+      for (int id = 0; id < vertexCount; id++) {
+        if (!insert(vertex(id), id)) {
+          throw new GraphException("Repeated vertex in the graph file " + path);
+        }
+      }
+    } catch (UncheckedIOException e) {
+      throw new GraphException("Could not decode the vertices of the graph file " + path,
+          e.getCause());
+    }
+  }
+
+  /**
+   * Checks the rows, the edge endpoints and types and the positions of the encoded elements, so a
+   * corrupted file is rejected when it is opened rather than when it is read.
+   */
+  private boolean isValid(int entries) {
+    if (rowStart(0) != 0 || rowStart(vertexCount) != entries) {
+      return false;
+    }
+    for (int u = 0; u < vertexCount; u++) {
+      if (rowStart(u) > rowEnd(u)) {
+        return false;
+      }
+    }
+    for (int pos = 0; pos < entries; pos++) {
+      int target = target(pos);
+      int edgeRef = edgeRef(pos);
+      if (target < 0 || target >= vertexCount || edgeRef < 0 || edgeRef >= edgeCount) {
+        return false;
+      }
+    }
+    for (int j = 0; j < edgeCount; j++) {
+      int source = file.getInt(edgeSourcesPosition + 4L * j);
+      int target = file.getInt(edgeTargetsPosition + 4L * j);
+      if (source < 0 || source >= vertexCount || target < 0 || target >= vertexCount
+          || BinaryGraphFormat.edgeType(file.getByte(edgeTypesPosition + j)) == null) {
+        return false;
+      }
+    }
+    for (int k = 0; k < vertexCount + edgeCount; k++) {
+      long position = file.getLong(vertexPositionsPosition + 8L * k
+          + (k < vertexCount ? 0 : 8));
+      if (position < edgeTypesPosition + edgeCount || position > vertexPositionsPosition) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static MappedFile map(Path path) throws GraphException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new MappedFile(channel);
+    } catch (IOException e) {
+      throw new GraphException("Could not map the graph file " + path, e);
+    }
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Adds a vertex to the hash table.
+   *
+   * @return False if an equal vertex is already in the table.
+   */
+  private boolean insert(V v, int id) {
+    int h = hash(v);
+    int i = h & tableMask;
+    int other;
+    while ((other = table.getInt(i * 8 + 4) - 1) != -1) {
+      if (table.getInt(i * 8) == h && vertex(other).equals(v)) {
+        return false;
+      }
+      i = (i + 1) & tableMask;
+    }
+    table.putInt(i * 8, h);
+    table.putInt(i * 8 + 4, id + 1);
+    return true;
+  }
+
+  /**
+   * Gets the id of a given vertex or -1 if it does not belong to this graph.
+   */
+  private int indexOf(Object v) {
+    if (v == null) {
+      return -1;
+    }
+    int h = hash(v);
+    int i = h & tableMask;
+    int id;
+    while ((id = table.getInt(i * 8 + 4) - 1) != -1) {
+      if (table.getInt(i * 8) == h && vertex(id).equals(v)) {
+        return id;
+      }
+      i = (i + 1) & tableMask;
+    }
+    return -1;
+  }
+
+  /**
+   * Decodes the vertex with a given id.
+   */
+  private V vertex(int id) {
+    try {
+      return codec.readVertex(file.input(file.getLong(vertexPositionsPosition + 8L * id)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Decodes the edge with a given number.
+   */
+  private E edge(int j) {
+    V source = vertex(file.getInt(edgeSourcesPosition + 4L * j));
+    V target = vertex(file.getInt(edgeTargetsPosition + 4L * j));
+    EdgeType edgeType = BinaryGraphFormat.edgeType(file.getByte(edgeTypesPosition + j));
+    try {
+      return codec.readEdge(source, target, edgeType,
+          file.input(file.getLong(edgePositionsPosition + 8L * j)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private int rowStart(int u) {
+    return file.getInt(offsetsPosition + 4L * u);
+  }
+
+  private int rowEnd(int u) {
+    return file.getInt(offsetsPosition + 4L * (u + 1));
+  }
+
+  private int target(int pos) {
+    return file.getInt(targetsPosition + 4L * pos);
+  }
+
+  private int edgeRef(int pos) {
+    return file.getInt(edgeRefsPosition + 4L * pos);
+  }
+
+  /**
+   * Gets the position of the entry u->v in the rows or -1 if there is no such entry.
+   */
+  private int positionOf(int u, int v) {
+    for (int pos = rowStart(u), end = rowEnd(u); pos < end; pos++) {
+      if (target(pos) == v) {
+        return pos;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public E getEdge(V from, V to) {
+    int u = indexOf(from);
+    int v = indexOf(to);
+    if (u == -1 || v == -1) {
+      return null;
+    }
+    int pos = positionOf(u, v);
+    return pos == -1 ? null : edge(edgeRef(pos));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> getEdges(V v) {
+    List<E> ret = new ArrayList<>();
+    forEachIncident(v, (w, e) -> ret.add(e));
+    return ret;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getVertices() {
+    return new DecodedSet<V>(vertexCount, this::vertex) {
+
+      @Override
+      public boolean contains(Object o) {
+        return indexOf(o) != -1;
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<E> getEdges() {
+    return new DecodedSet<E>(edgeCount, this::edge) {
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public boolean contains(Object o) {
+        if (!(o instanceof Edge)) {
+          return false;
+        }
+        E edge = (E) o;
+        return o.equals(getEdge(edge.getSource(), edge.getTarget()))
+            || (edge.getEdgeType() == EdgeType.Undirected
+            && o.equals(getEdge(edge.getTarget(), edge.getSource())));
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<V> getAdjacentVertices(V v) {
+    return getSuccessors(v);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachIncident(V v, BiConsumer<? super V, ? super E> action) {
+    int u = indexOf(v);
+    if (u == -1) {
+      return;
+    }
+    for (int pos = rowStart(u), end = rowEnd(u); pos < end; pos++) {
+      action.accept(vertex(target(pos)), edge(edgeRef(pos)));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getSuccessors(V v) {
+    int u = indexOf(v);
+    int start = u == -1 ? 0 : rowStart(u);
+    int end = u == -1 ? 0 : rowEnd(u);
+    return new DecodedSet<V>(end - start, k -> vertex(target(start + k))) {
+
+      @Override
+      public boolean contains(Object o) {
+        int w = indexOf(o);
+        return u != -1 && w != -1 && positionOf(u, w) != -1;
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(V v, Consumer<? super V> action) {
+    int u = indexOf(v);
+    if (u == -1) {
+      return;
+    }
+    for (int pos = rowStart(u), end = rowEnd(u); pos < end; pos++) {
+      action.accept(vertex(target(pos)));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(int id, IntConsumer action) {
+    if (id < 0 || id >= vertexCount) {
+      return;
+    }
+    for (int pos = rowStart(id), end = rowEnd(id); pos < end; pos++) {
+      action.accept(target(pos));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDegree(V v) {
+    int u = indexOf(v);
+    return u == -1 ? 0 : rowEnd(u) - rowStart(u);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public VertexIndex<V> getVertexIndex() {
+    return vertexIndex;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() {
+    return 0;
+  }
+
+  /**
+   * Set of a fixed number of elements decoded by their positions, which does not keep any element
+   * in memory.
+   */
+  private abstract static class DecodedSet<T> extends AbstractSet<T> {
+
+    private final int size;
+    private final IntFunction<T> decoder;
+
+    DecodedSet(int size, IntFunction<T> decoder) {
+      this.size = size;
+      this.decoder = decoder;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < size;
+        }
+
+        @Override
+        public T next() {
+          if (next >= size) {
+            throw new NoSuchElementException();
+          }
+          return decoder.apply(next++);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * Vertex index of the mapped graph, whose ids are the numbers of the vertices in the file.
+   */
+  private final class MappedIndex implements VertexIndex<V> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getId(V v) {
+      return indexOf(v);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getVertex(int id) {
+      return id >= 0 && id < vertexCount ? vertex(id) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+      return vertexCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIdBound() {
+      return vertexCount;
+    }
+  }
+}
@@ -21,6 +21,7 @@ import org.psgraph.graph.Edge;
 import org.psgraph.graph.EdgeType;
 import org.psgraph.graph.SparseRepresentation;
 import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexRegistry;
 
 /**
  * The sparse analytical graph is a specialization of the sparse graph. It allows more elaborated
@@ -40,14 +41,25 @@ public class SparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
   protected final Map<V, Set<V>> predecessors;
 
   public SparseAnalyticalGraph(SparseRepresentation sparseRepresentation, Collection<E> edges) {
-    super(sparseRepresentation, edges);
+    super(sparseRepresentation);
     this.predecessors = new HashMap<>();
+    edges.forEach(e -> addEdge(e));
   }
 
   public SparseAnalyticalGraph(Collection<E> edges) {
     this(SparseRepresentation.Hash, edges);
   }
 
+  /**
+   * Creates a graph over structures already built, e.g. by the {@link GraphBuilder}.
+   */
+  protected SparseAnalyticalGraph(SparseRepresentation sparseRepresentation,
+      Map<V, Map<V, E>> graph, Set<E> edges, VertexRegistry<V> vertexIndex,
+      Map<V, Set<V>> predecessors) {
+    super(sparseRepresentation, graph, edges, vertexIndex);
+    this.predecessors = predecessors;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -56,11 +68,9 @@ public class SparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
     super.addEdge(edge);
     V source = edge.getSource();
     V target = edge.getTarget();
-    predecessors.putIfAbsent(target, new HashSet<>());
-    predecessors.get(target).add(source);
+    predecessors.computeIfAbsent(target, k -> new HashSet<>()).add(source);
     if (edge.getEdgeType() == EdgeType.Undirected) {
-      predecessors.putIfAbsent(source, new HashSet<>());
-      predecessors.get(source).add(target);
+      predecessors.computeIfAbsent(source, k -> new HashSet<>()).add(target);
     }
   }
 
@@ -69,9 +79,6 @@ public class SparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
    */
   @Override
   public Set<V> getPredecessors(V v) {
-    if (predecessors.containsKey(v)) {
-      return predecessors.get(v);
-    }
-    return null;
+    return predecessors.get(v);
   }
 }
\ No newline at end of file
@@ -19,11 +19,16 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import org.psgraph.graph.Edge;
 import org.psgraph.graph.EdgeType;
 import org.psgraph.graph.Graph;
 import org.psgraph.graph.SparseRepresentation;
 import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.VertexRegistry;
 
 /**
  * A sparse graph, as the name suggests, allows sparse graph representation. It uses a HashMap
@@ -44,11 +49,11 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
   protected final Map<V, Map<V, E>> graph;
   protected final Set<E> edges;
   protected final SparseRepresentation sparseRepresentation;
+  protected final VertexRegistry<V> vertexIndex;
+  private volatile int[][] successorIds;
 
   public SparseGraph(SparseRepresentation sparseRepresentation, Collection<E> edges) {
-    this.sparseRepresentation = sparseRepresentation;
-    this.graph = newMap();
-    this.edges = newSet();
+    this(sparseRepresentation);
     edges.forEach(e -> addEdge(e));
   }
 
@@ -56,6 +61,35 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
     this(SparseRepresentation.Hash, edges);
   }
 
+  /**
+   * Creates an empty graph. Subclasses that keep additional structures must initialize them before
+   * adding edges, since {@link #addEdge(Edge)} may be overridden to maintain them.
+   */
+  protected SparseGraph(SparseRepresentation sparseRepresentation) {
+    this.sparseRepresentation = sparseRepresentation;
+    this.graph = newMap();
+    this.edges = newSet();
+    this.vertexIndex = newVertexRegistry();
+  }
+
+  /**
+   * Creates a graph over structures already built, e.g. by the {@link GraphBuilder}.
+   */
+  protected SparseGraph(SparseRepresentation sparseRepresentation, Map<V, Map<V, E>> graph,
+      Set<E> edges, VertexRegistry<V> vertexIndex) {
+    this.sparseRepresentation = sparseRepresentation;
+    this.graph = graph;
+    this.edges = edges;
+    this.vertexIndex = vertexIndex;
+  }
+
+  /**
+   * Builds the registry that assigns the vertex ids of this graph.
+   */
+  protected VertexRegistry<V> newVertexRegistry() {
+    return new VertexRegistry<>();
+  }
+
   /**
    * Builds a Set for the specified graph representation.
    */
@@ -80,7 +114,8 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
 
   @Override
   public E getEdge(V from, V to) {
-    return graph.getOrDefault(from, new HashMap<>()).get(to);
+    Map<V, E> adjacency = graph.get(from);
+    return adjacency == null ? null : adjacency.get(to);
   }
 
   /**
@@ -93,11 +128,13 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
     // the graph to search for them.
     V source = edge.getSource();
     V target = edge.getTarget();
-    graph.putIfAbsent(source, newMap());
-    graph.putIfAbsent(target, newMap());
-    graph.get(source).put(target, edge);
+    Map<V, E> sourceAdjacency = graph.computeIfAbsent(source, k -> newMap());
+    Map<V, E> targetAdjacency = graph.computeIfAbsent(target, k -> newMap());
+    vertexIndex.register(source);
+    vertexIndex.register(target);
+    sourceAdjacency.put(target, edge);
     if (edge.getEdgeType() == EdgeType.Undirected) {
-      graph.get(target).put(source, edge);
+      targetAdjacency.put(source, edge);
     }
     edges.add(edge);
   }
@@ -107,7 +144,8 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
    */
   @Override
   public Collection<E> getEdges(V v) {
-    return graph.getOrDefault(v, new HashMap<>()).values();
+    Map<V, E> adjacency = graph.get(v);
+    return adjacency == null ? Collections.<E>emptyList() : adjacency.values();
   }
 
   /**
@@ -131,7 +169,20 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
    */
   @Override
   public Set<V> getAdjacentVertices(V v) {
-    return Collections.unmodifiableSet(graph.getOrDefault(v, new HashMap<>()).keySet());
+    Map<V, E> adjacency = graph.get(v);
+    return adjacency == null ? Collections.<V>emptySet()
+        : Collections.unmodifiableSet(adjacency.keySet());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachIncident(V v, BiConsumer<? super V, ? super E> action) {
+    Map<V, E> adjacency = graph.get(v);
+    if (adjacency != null) {
+      adjacency.forEach(action);
+    }
   }
 
   /**
@@ -139,10 +190,82 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V
    */
   @Override
   public Set<V> getSuccessors(V v) {
-    if (graph.containsKey(v)) {
-      return graph.get(v).keySet();
-    } else {
-      return new HashSet<>();
+    Map<V, E> adjacency = graph.get(v);
+    return adjacency == null ? Collections.<V>emptySet() : adjacency.keySet();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(V v, Consumer<? super V> action) {
+    int id = vertexIndex.getId(v);
+    int[][] table = successorIds();
+    if (id >= 0 && id < table.length && table[id] != null) {
+      for (int successor : table[id]) {
+        action.accept(vertexIndex.getVertex(successor));
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(int id, IntConsumer action) {
+    int[][] table = successorIds();
+    if (id >= 0 && id < table.length && table[id] != null) {
+      for (int successor : table[id]) {
+        action.accept(successor);
+      }
+    }
+  }
+
+  /**
+   * Gets the ids of the successors of every vertex, indexed by the id of the vertex, so the
+   * successors are iterated without allocating an iterator or a lambda per call. The table is
+   * built on the first use, since the subclasses add their edges after this constructor returns.
+   * Concurrent first uses may build it more than once, but they all build the same table.
+   */
+  private int[][] successorIds() {
+    int[][] table = successorIds;
+    if (table == null) {
+      table = new int[vertexIndex.getIdBound()][];
+      for (Map.Entry<V, Map<V, E>> entry : graph.entrySet()) {
+        int[] row = new int[entry.getValue().size()];
+        int k = 0;
+        for (V successor : entry.getValue().keySet()) {
+          row[k++] = vertexIndex.getId(successor);
+        }
+        table[vertexIndex.getId(entry.getKey())] = row;
+      }
+      successorIds = table;
     }
+    return table;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDegree(V v) {
+    Map<V, E> adjacency = graph.get(v);
+    return adjacency == null ? 0 : adjacency.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public VertexIndex<V> getVertexIndex() {
+    return vertexIndex;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getVersion() {
+    return 0;
   }
 }
\ No newline at end of file
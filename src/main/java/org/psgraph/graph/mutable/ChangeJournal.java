@@ -0,0 +1,169 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Vertex;
+
+/**
+ * Ordered journal of the changes of a mutable graph, which allows caches built over the graph to
+ * learn what changed since they were computed instead of computing everything again. The changes
+ * form a linked list that is appended without locks: a writer links its change after the last one
+ * by a compare-and-set, thus concurrent writers never block each other and the versions follow the
+ * order of the list.
+ *
+ * The journal itself only references its last change. Each {@link Subscription} keeps its position
+ * in the list and consumes the changes after it in batches of any size, so slow consumers do not
+ * delay the writers. The changes already consumed by every subscription are collected by the
+ * garbage collector, while a subscription that is no longer polled keeps all the changes after its
+ * position alive, thus it must be discarded when it is no longer needed.
+ *
+ * @author Wilson de Carvalho
+ */
+public class ChangeJournal<V extends Vertex, E extends Edge<V>> {
+
+  /**
+   * The last change published or one of the changes before it, since the tail is updated after
+   * the change is linked.
+   */
+  private final AtomicReference<GraphChange<V, E>> tail;
+
+  public ChangeJournal() {
+    this.tail = new AtomicReference<>(new GraphChange<>(null, null, null));
+  }
+
+  /**
+   * Finds the last change published.
+   */
+  private GraphChange<V, E> last() {
+    GraphChange<V, E> last = tail.get();
+    GraphChange<V, E> next;
+    while ((next = last.getNext()) != null) {
+      last = next;
+    }
+    return last;
+  }
+
+  /**
+   * Gets the version of the last change published, which is zero while nothing changed.
+   */
+  public long getVersion() {
+    return last().getVersion();
+  }
+
+  /**
+   * Publishes a change of a given type.
+   */
+  void publish(ChangeType type, V vertex, E edge) {
+    GraphChange<V, E> change = new GraphChange<>(type, vertex, edge);
+    while (true) {
+      GraphChange<V, E> last = tail.get();
+      GraphChange<V, E> next = last.getNext();
+      if (next != null) {
+        tail.compareAndSet(last, next);
+        continue;
+      }
+      change.version = last.getVersion() + 1;
+      if (last.link(change)) {
+        tail.compareAndSet(last, change);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Publishes the addition of a given vertex.
+   */
+  public void vertexAdded(V v) {
+    publish(ChangeType.VertexAdded, v, null);
+  }
+
+  /**
+   * Publishes the removal of a given vertex, after the removal of its edges.
+   */
+  public void vertexRemoved(V v) {
+    publish(ChangeType.VertexRemoved, v, null);
+  }
+
+  /**
+   * Publishes the addition of a given edge.
+   */
+  public void edgeAdded(E edge) {
+    publish(ChangeType.EdgeAdded, null, edge);
+  }
+
+  /**
+   * Publishes the removal of a given edge, including its replacement by another edge between the
+   * same vertices.
+   */
+  public void edgeRemoved(E edge) {
+    publish(ChangeType.EdgeRemoved, null, edge);
+  }
+
+  /**
+   * Subscribes to the changes published after this call.
+   */
+  public Subscription<V, E> subscribe() {
+    return new Subscription<>(last());
+  }
+
+  /**
+   * Position of a consumer in the journal. A subscription must be polled by a single thread at a
+   * time.
+   */
+  public static final class Subscription<V extends Vertex, E extends Edge<V>> {
+
+    private GraphChange<V, E> last;
+
+    Subscription(GraphChange<V, E> last) {
+      this.last = last;
+    }
+
+    /**
+     * Gets the version of the last change consumed, which is the version of the journal when the
+     * changes consumed so far were made.
+     */
+    public long getVersion() {
+      return last.getVersion();
+    }
+
+    /**
+     * Checks whether there are changes not consumed yet.
+     */
+    public boolean hasChanges() {
+      return last.getNext() != null;
+    }
+
+    /**
+     * Consumes all the changes published so far, in order.
+     */
+    public List<GraphChange<V, E>> poll() {
+      return poll(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Consumes up to a given number of changes, in order.
+     */
+    public List<GraphChange<V, E>> poll(int maxChanges) {
+      List<GraphChange<V, E>> ret = new ArrayList<>();
+      GraphChange<V, E> next;
+      while (ret.size() < maxChanges && (next = last.getNext()) != null) {
+        ret.add(next);
+        last = next;
+      }
+      return ret;
+    }
+  }
+}
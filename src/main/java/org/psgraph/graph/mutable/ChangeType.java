@@ -0,0 +1,21 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+/**
+ * Defines the types of changes published by the journals of mutable graphs.
+ *
+ * @author Wilson de Carvalho
+ */
+public enum ChangeType {
+  VertexAdded, VertexRemoved, EdgeAdded, EdgeRemoved;
+}
@@ -0,0 +1,128 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.psgraph.graph.AnalyticalGraph;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.Vertex;
+
+/**
+ * The concurrent sparse analytical graph is a specialization of the concurrent sparse graph that
+ * keeps the predecessors of every vertex in concurrent sets. The predecessors of a vertex are only
+ * modified while the stripe of that vertex is locked, so they are always consistent with the
+ * adjacency once a writer finishes.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.mutable.SparseAnalyticalGraph
+ */
+public class ConcurrentSparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
+    ConcurrentSparseGraph<V, E> implements AnalyticalGraph<V, E> {
+
+  protected final ConcurrentMap<V, Set<V>> predecessors;
+
+  public ConcurrentSparseAnalyticalGraph() {
+    super();
+    this.predecessors = new ConcurrentHashMap<>();
+  }
+
+  public ConcurrentSparseAnalyticalGraph(Collection<E> edges) {
+    this();
+    edges.forEach(e -> addEdge(e));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addEdge(E edge) {
+    V source = edge.getSource();
+    V target = edge.getTarget();
+    lock(source, target);
+    try {
+      super.addEdge(edge);
+      predecessors.computeIfAbsent(target, k -> ConcurrentHashMap.newKeySet()).add(source);
+      if (edge.getEdgeType() == EdgeType.Undirected) {
+        predecessors.computeIfAbsent(source, k -> ConcurrentHashMap.newKeySet()).add(target);
+      }
+    } finally {
+      unlock(source, target);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeVertex(V v) {
+    lockAll();
+    try {
+      super.removeVertex(v);
+      predecessors.remove(v);
+    } finally {
+      unlockAll();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Collection<V> findPredecessors(V v) {
+    Set<V> ret = predecessors.get(v);
+    return ret == null ? new ArrayList<>() : new ArrayList<>(ret);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(V from, V to) {
+    lock(from, to);
+    try {
+      super.removeEdge(from, to);
+      if (getEdge(from, to) == null) {
+        removePredecessor(to, from);
+      }
+      if (getEdge(to, from) == null) {
+        removePredecessor(from, to);
+      }
+    } finally {
+      unlock(from, to);
+    }
+  }
+
+  /**
+   * Removes the vertex u from the predecessors of the vertex v.
+   */
+  private void removePredecessor(V v, V u) {
+    Set<V> set = predecessors.get(v);
+    if (set != null) {
+      set.remove(u);
+      if (set.isEmpty()) {
+        predecessors.remove(v, set);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getPredecessors(V v) {
+    return predecessors.get(v);
+  }
+}
@@ -0,0 +1,205 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.psgraph.graph.ConcurrentVertexRegistry;
+import org.psgraph.graph.SparseRepresentation;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexRegistry;
+
+/**
+ * A thread safe sparse graph. The adjacency of every vertex and the set of edges are stored in
+ * concurrent hash maps, so readers never lock and may run concurrently with writers. Writers lock
+ * only the stripes of the vertices they change (the stripe of a vertex is chosen by its hash),
+ * thus modifications of unrelated parts of the graph proceed in parallel. Removing a vertex locks
+ * all the stripes.
+ *
+ * The collections returned by this graph are live views that are weakly consistent: they never
+ * throw ConcurrentModificationException and reflect some state of the graph at or since their
+ * creation. A reader that needs a consistent view of several vertices while the graph is being
+ * modified must synchronize with the writers on its own. Note that the indexed searches size their
+ * arrays by the vertex ids assigned when the search starts.
+ *
+ * @author Wilson de Carvalho
+ */
+public class ConcurrentSparseGraph<V extends Vertex, E extends Edge<V>> extends SparseGraph<V, E> {
+
+  private static final int STRIPES = 64;
+
+  private final ReentrantLock[] locks;
+
+  public ConcurrentSparseGraph() {
+    super(SparseRepresentation.Hash);
+    this.locks = newLocks();
+  }
+
+  public ConcurrentSparseGraph(Collection<E> edges) {
+    this();
+    edges.forEach(e -> addEdge(e));
+  }
+
+  private static ReentrantLock[] newLocks() {
+    ReentrantLock[] ret = new ReentrantLock[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      ret[i] = new ReentrantLock();
+    }
+    return ret;
+  }
+
+  /**
+   * Builds a concurrent set, regardless of the sparse representation.
+   */
+  @Override
+  protected <T> Set<T> newSet() {
+    return ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Builds a concurrent map, regardless of the sparse representation.
+   */
+  @Override
+  protected <T1, T2> Map<T1, T2> newMap() {
+    return new ConcurrentHashMap<>();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected VertexRegistry<V> newVertexRegistry() {
+    return new ConcurrentVertexRegistry<>();
+  }
+
+  /**
+   * Gets the stripe of a given vertex.
+   */
+  private int stripeOf(V v) {
+    int h = v.hashCode() * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & (STRIPES - 1);
+  }
+
+  /**
+   * Locks the stripes of two vertices, always in ascending order to avoid deadlocks.
+   */
+  protected void lock(V u, V v) {
+    int a = stripeOf(u);
+    int b = stripeOf(v);
+    locks[Math.min(a, b)].lock();
+    if (a != b) {
+      locks[Math.max(a, b)].lock();
+    }
+  }
+
+  /**
+   * Unlocks the stripes locked by {@link #lock(Vertex, Vertex)}.
+   */
+  protected void unlock(V u, V v) {
+    int a = stripeOf(u);
+    int b = stripeOf(v);
+    if (a != b) {
+      locks[Math.max(a, b)].unlock();
+    }
+    locks[Math.min(a, b)].unlock();
+  }
+
+  /**
+   * Locks all the stripes, in ascending order.
+   */
+  protected void lockAll() {
+    for (ReentrantLock lock : locks) {
+      lock.lock();
+    }
+  }
+
+  /**
+   * Unlocks the stripes locked by {@link #lockAll()}.
+   */
+  protected void unlockAll() {
+    for (int i = STRIPES - 1; i >= 0; i--) {
+      locks[i].unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addVertex(V v) {
+    lock(v, v);
+    try {
+      super.addVertex(v);
+    } finally {
+      unlock(v, v);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeVertex(V v) {
+    lockAll();
+    try {
+      super.removeVertex(v);
+    } finally {
+      unlockAll();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addEdge(E edge) {
+    V source = edge.getSource();
+    V target = edge.getTarget();
+    lock(source, target);
+    try {
+      super.addEdge(edge);
+    } finally {
+      unlock(source, target);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(E edge) {
+    V source = edge.getSource();
+    V target = edge.getTarget();
+    lock(source, target);
+    try {
+      super.removeEdge(edge);
+    } finally {
+      unlock(source, target);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(V from, V to) {
+    lock(from, to);
+    try {
+      super.removeEdge(from, to);
+    } finally {
+      unlock(from, to);
+    }
+  }
+}
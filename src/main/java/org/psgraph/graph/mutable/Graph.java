@@ -46,4 +46,9 @@ public interface Graph<V extends Vertex, E extends Edge<V>> extends org.psgraph.
    * Removes the edge that is connected to the informed vertices.
    */
   void removeEdge(V from, V to);
+
+  /**
+   * Gets the journal in which this graph publishes its changes.
+   */
+  ChangeJournal<V, E> getJournal();
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Vertex;
+
+/**
+ * A change of a mutable graph, as published by its {@link ChangeJournal}. The changes of a journal
+ * are linked in the order they were made, and each one is numbered by a version one greater than
+ * the version of the previous change.
+ *
+ * @author Wilson de Carvalho
+ */
+public final class GraphChange<V extends Vertex, E extends Edge<V>> {
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<GraphChange, GraphChange> NEXT =
+      AtomicReferenceFieldUpdater.newUpdater(GraphChange.class, GraphChange.class, "next");
+
+  private final ChangeType type;
+  private final V vertex;
+  private final E edge;
+  /**
+   * Assigned before the change is linked, thus it is visible to everyone who reads the link.
+   */
+  long version;
+  private volatile GraphChange<V, E> next;
+
+  GraphChange(ChangeType type, V vertex, E edge) {
+    this.type = type;
+    this.vertex = vertex;
+    this.edge = edge;
+  }
+
+  /**
+   * Gets the type of this change.
+   */
+  public ChangeType getType() {
+    return type;
+  }
+
+  /**
+   * Gets the vertex added or removed, or null if this is a change of an edge.
+   */
+  public V getVertex() {
+    return vertex;
+  }
+
+  /**
+   * Gets the edge added or removed, or null if this is a change of a vertex.
+   */
+  public E getEdge() {
+    return edge;
+  }
+
+  /**
+   * Gets the version of the journal after this change.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  GraphChange<V, E> getNext() {
+    return next;
+  }
+
+  /**
+   * Links a given change after this one, unless another change was linked first.
+   */
+  boolean link(GraphChange<V, E> change) {
+    return NEXT.compareAndSet(this, null, change);
+  }
+
+  @Override
+  public String toString() {
+    return type + " " + (vertex != null ? vertex : edge) + " @" + version;
+  }
+}
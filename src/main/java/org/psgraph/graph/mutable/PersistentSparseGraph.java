@@ -0,0 +1,346 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.psgraph.graph.ElementCodec;
+import org.psgraph.graph.SparseRepresentation;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.exception.GraphException;
+import org.psgraph.graph.immutable.BinaryGraphReader;
+import org.psgraph.graph.immutable.BinaryGraphWriter;
+
+/**
+ * A sparse graph whose mutations are stored in a directory, so that it can be recovered after a
+ * crash. Every mutation is appended to a write-ahead log before being applied, and the log is
+ * synced in groups of mutations, thus a crash loses at most the mutations of the group not synced
+ * yet. The mutations are guaranteed to be stored once {@link #sync()} returns.
+ *
+ * The log is compacted by checkpoints, which write the whole graph in the binary graph format and
+ * start a new log. A checkpoint is written after a given number of mutations or when
+ * {@link #checkpoint()} is called. Each checkpoint and its log are numbered by a generation, and a
+ * new checkpoint only replaces the previous one when it is completely stored, thus the graph is
+ * recovered from the last complete checkpoint and its log whatever the moment of the crash.
+ *
+ * The vertices and edges are stored by an element codec, which must decode elements equal to the
+ * ones encoded. A failure to write the log is thrown as an {@link UncheckedIOException}, and no
+ * mutation is accepted after it. The directory must not be used by other graphs. This mutable graph
+ * is not thread safe.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.mutable.WriteAheadLog
+ */
+public class PersistentSparseGraph<V extends Vertex, E extends Edge<V>> extends SparseGraph<V, E>
+    implements AutoCloseable {
+
+  public static final int DEFAULT_GROUP_SIZE = 1024;
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 1 << 20;
+  private static final Pattern FILE_NAME = Pattern.compile(
+      "(checkpoint-(\\d+)\\.(psg|tmp))|(log-\\d+\\.wal)");
+
+  private final Path directory;
+  private final ElementCodec<V, E> codec;
+  private final int groupSize;
+  private final int checkpointInterval;
+  private WriteAheadLog<V, E> log;
+  private long generation;
+  /**
+   * Size of the log at which the next checkpoint is written.
+   */
+  private int nextCheckpoint;
+  /**
+   * Whether a mutation is being applied, in which case the mutations it performs are not logged.
+   */
+  private boolean applying;
+  private IOException failure;
+  private boolean closed;
+
+  public PersistentSparseGraph(Path directory, ElementCodec<V, E> codec) throws GraphException {
+    this(SparseRepresentation.Hash, directory, codec, DEFAULT_GROUP_SIZE,
+        DEFAULT_CHECKPOINT_INTERVAL);
+  }
+
+  /**
+   * Recovers the graph stored in a given directory, which is created if it does not exist.
+   *
+   * @param groupSize The number of mutations synced at once.
+   * @param checkpointInterval The number of logged mutations after which a checkpoint is written,
+   * or zero to only write checkpoints when {@link #checkpoint()} is called.
+   */
+  public PersistentSparseGraph(SparseRepresentation sparseRepresentation, Path directory,
+      ElementCodec<V, E> codec, int groupSize, int checkpointInterval) throws GraphException {
+    super(sparseRepresentation);
+    this.directory = directory;
+    this.codec = codec;
+    this.groupSize = groupSize;
+    this.checkpointInterval = checkpointInterval;
+    recover();
+  }
+
+  private Path checkpointPath(long generation) {
+    return directory.resolve("checkpoint-" + generation + ".psg");
+  }
+
+  private Path logPath(long generation) {
+    return directory.resolve("log-" + generation + ".wal");
+  }
+
+  /**
+   * Loads the last checkpoint, replays its log and removes the files of the other generations.
+   */
+  private void recover() throws GraphException {
+    try {
+      Files.createDirectories(directory);
+      generation = 0;
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+        for (Path file : files) {
+          Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+          if (matcher.matches() && "psg".equals(matcher.group(3))) {
+            generation = Math.max(generation, Long.parseLong(matcher.group(2)));
+          }
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      throw new GraphException("Could not list the files of " + directory, e);
+    }
+    applying = true;
+    try {
+      if (Files.exists(checkpointPath(generation))) {
+        load(checkpointPath(generation));
+      }
+      log = new WriteAheadLog<>(logPath(generation), codec, groupSize);
+      log.replay(this);
+    } finally {
+      applying = false;
+    }
+    nextCheckpoint = log.size() + checkpointInterval;
+    deleteOtherGenerations();
+  }
+
+  private void load(Path checkpoint) throws GraphException {
+    org.psgraph.graph.Graph<V, E> loaded = new BinaryGraphReader<>(codec).readSparseGraph(
+        checkpoint, sparseRepresentation);
+    VertexIndex<V> index = loaded.getVertexIndex();
+    for (int id = 0; id < index.getIdBound(); id++) {
+      V v = index.getVertex(id);
+      if (v != null) {
+        addVertex(v);
+      }
+    }
+    // The entries are copied one by one, since replacing an undirected edge by a directed one
+    // leaves the adjacency asymmetric and adding the edges again would not reproduce it
+    for (V v : loaded.getVertices()) {
+      Map<V, E> map = graph.get(v);
+      loaded.forEachIncident(v, (w, e) -> {
+        map.put(w, e);
+        edges.add(e);
+      });
+    }
+  }
+
+  private void deleteOtherGenerations() throws GraphException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        if (FILE_NAME.matcher(file.getFileName().toString()).matches()
+            && !file.equals(checkpointPath(generation)) && !file.equals(logPath(generation))) {
+          Files.deleteIfExists(file);
+        }
+      }
+    } catch (IOException e) {
+      throw new GraphException("Could not remove the old files of " + directory, e);
+    }
+  }
+
+  /**
+   * Writes the whole graph to a new checkpoint and starts a new log, removing the previous
+   * checkpoint and log.
+   */
+  public void checkpoint() throws GraphException {
+    // A failure to sync the current log fails the graph, as it does for the other writes
+    sync();
+    long next = generation + 1;
+    Path temporary = directory.resolve("checkpoint-" + next + ".tmp");
+    WriteAheadLog<V, E> nextLog = new WriteAheadLog<>(logPath(next), codec, groupSize);
+    try {
+      new BinaryGraphWriter<>(codec).write(this, temporary);
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.deleteIfExists(logPath(next));
+      nextLog.replay(this);
+      Files.move(temporary, checkpointPath(next), StandardCopyOption.ATOMIC_MOVE);
+      syncDirectory();
+    } catch (IOException e) {
+      close(nextLog);
+      throw new GraphException("Could not write a checkpoint to " + directory, e);
+    }
+    WriteAheadLog<V, E> previous = log;
+    log = nextLog;
+    generation = next;
+    nextCheckpoint = checkpointInterval;
+    close(previous);
+    deleteOtherGenerations();
+  }
+
+  /**
+   * Closes a log that is no longer needed, ignoring failures.
+   */
+  private void close(WriteAheadLog<V, E> unused) {
+    try {
+      unused.close();
+    } catch (IOException e) {
+      // Its records are not needed
+    }
+  }
+
+  /**
+   * Makes the renaming of the checkpoint durable where the file system supports syncing
+   * directories.
+   */
+  private void syncDirectory() {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // Not supported by every platform
+    }
+  }
+
+  /**
+   * Writes the mutations not synced yet and waits until they are stored in the device.
+   */
+  public void sync() throws GraphException {
+    checkWritable();
+    try {
+      log.sync();
+    } catch (IOException e) {
+      failure = e;
+      throw new GraphException("Could not write to the log in " + directory, e);
+    }
+  }
+
+  /**
+   * Syncs the log and closes it. The graph may still be read, but not modified, after it is
+   * closed.
+   */
+  @Override
+  public void close() throws GraphException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      log.close();
+    } catch (IOException e) {
+      throw new GraphException("Could not write to the log in " + directory, e);
+    }
+  }
+
+  private void checkWritable() {
+    if (closed) {
+      throw new IllegalStateException("The graph stored in " + directory + " is closed.");
+    }
+    if (failure != null) {
+      throw new IllegalStateException("The log in " + directory + " failed.", failure);
+    }
+  }
+
+  /**
+   * Logs a mutation and applies it, unless it is performed by another mutation being applied.
+   */
+  private void mutate(LogAction<V, E> action, Runnable mutation) {
+    if (applying) {
+      mutation.run();
+      return;
+    }
+    checkWritable();
+    try {
+      action.append(log);
+    } catch (IOException e) {
+      failure = e;
+      throw new UncheckedIOException("Could not write to the log in " + directory, e);
+    }
+    applying = true;
+    try {
+      mutation.run();
+    } finally {
+      applying = false;
+    }
+    if (checkpointInterval > 0 && log.size() >= nextCheckpoint) {
+      nextCheckpoint += checkpointInterval;
+      try {
+        checkpoint();
+      } catch (GraphException e) {
+        throw new IllegalStateException("The mutation was stored, but the checkpoint failed.", e);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addVertex(V v) {
+    mutate(l -> l.addVertex(v), () -> super.addVertex(v));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeVertex(V v) {
+    mutate(l -> l.removeVertex(v), () -> super.removeVertex(v));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addEdge(E edge) {
+    mutate(l -> l.addEdge(edge), () -> super.addEdge(edge));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(E edge) {
+    mutate(l -> l.removeEdge(edge), () -> super.removeEdge(edge));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(V from, V to) {
+    mutate(l -> l.removeEdge(from, to), () -> super.removeEdge(from, to));
+  }
+
+  /**
+   * Appends a mutation to a log.
+   */
+  @FunctionalInterface
+  private interface LogAction<V extends Vertex, E extends Edge<V>> {
+
+    void append(WriteAheadLog<V, E> log) throws IOException;
+  }
+}
@@ -11,6 +11,7 @@
 
 package org.psgraph.graph.mutable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -39,8 +40,9 @@ public class SparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
   protected final Map<V, Set<V>> predecessors;
 
   public SparseAnalyticalGraph(SparseRepresentation sparseRepresentation, Collection<E> edges) {
-    super(sparseRepresentation, edges);
+    super(sparseRepresentation);
     this.predecessors = new HashMap<>();
+    edges.forEach(e -> addEdge(e));
   }
 
   public SparseAnalyticalGraph(Collection<E> edges) {
@@ -55,11 +57,9 @@ public class SparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
     super.addEdge(edge);
     V source = edge.getSource();
     V target = edge.getTarget();
-    predecessors.putIfAbsent(target, new HashSet<>());
-    predecessors.get(target).add(source);
+    predecessors.computeIfAbsent(target, k -> new HashSet<>()).add(source);
     if (edge.getEdgeType() == EdgeType.Undirected) {
-      predecessors.putIfAbsent(source, new HashSet<>());
-      predecessors.get(source).add(target);
+      predecessors.computeIfAbsent(source, k -> new HashSet<>()).add(target);
     }
   }
 
@@ -67,10 +67,52 @@ public class SparseAnalyticalGraph<V extends Vertex, E extends Edge<V>> extends
    * {@inheritDoc}
    */
   @Override
-  public Set<V> getPredecessors(V v) {
-    if (predecessors.containsKey(v)) {
-      return predecessors.get(v);
+  public void removeVertex(V v) {
+    super.removeVertex(v);
+    predecessors.remove(v);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Collection<V> findPredecessors(V v) {
+    Set<V> ret = predecessors.get(v);
+    return ret == null ? new ArrayList<>() : new ArrayList<>(ret);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(V from, V to) {
+    super.removeEdge(from, to);
+    if (getEdge(from, to) == null) {
+      removePredecessor(to, from);
     }
-    return null;
+    if (getEdge(to, from) == null) {
+      removePredecessor(from, to);
+    }
+  }
+
+  /**
+   * Removes the vertex u from the predecessors of the vertex v.
+   */
+  private void removePredecessor(V v, V u) {
+    Set<V> set = predecessors.get(v);
+    if (set != null) {
+      set.remove(u);
+      if (set.isEmpty()) {
+        predecessors.remove(v);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getPredecessors(V v) {
+    return predecessors.get(v);
   }
 }
\ No newline at end of file
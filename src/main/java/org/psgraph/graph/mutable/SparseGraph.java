@@ -14,6 +14,8 @@ package org.psgraph.graph.mutable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import org.psgraph.graph.EdgeType;
 import org.psgraph.graph.SparseRepresentation;
 import org.psgraph.graph.Vertex;
@@ -35,20 +37,23 @@ import org.psgraph.graph.Vertex;
 public class SparseGraph<V extends Vertex, E extends Edge<V>> extends
     org.psgraph.graph.immutable.SparseGraph<V, E> implements Graph<V, E> {
 
+  protected final ChangeJournal<V, E> journal = new ChangeJournal<>();
+
   public SparseGraph() {
     this(SparseRepresentation.Hash);
   }
 
   public SparseGraph(SparseRepresentation sparseRepresentation) {
-    super(new ArrayList<>());
+    super(sparseRepresentation);
   }
 
   public SparseGraph(Collection<E> edges) {
-    super(edges);
+    this(SparseRepresentation.Hash, edges);
   }
 
   public SparseGraph(SparseRepresentation sparseRepresentation, Collection<E> edges) {
-    super(sparseRepresentation, edges);
+    this(sparseRepresentation);
+    edges.forEach(e -> addEdge(e));
   }
 
   /**
@@ -56,7 +61,11 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> extends
    */
   @Override
   public void addVertex(V v) {
-    graph.putIfAbsent(v, newMap());
+    if (!graph.containsKey(v)) {
+      graph.put(v, newMap());
+      vertexIndex.register(v);
+      journal.vertexAdded(v);
+    }
   }
 
   /**
@@ -66,12 +75,32 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> extends
   public void removeVertex(V v) {
     // Must also remove this vertex from all other edges
     Map<V, E> map = graph.get(v);
-    if (map != null) {
-      for (V u : map.keySet()) {
-        graph.get(u).remove(v);
-      }
+    if (map == null) {
+      return;
+    }
+    for (V u : new ArrayList<>(map.keySet())) {
+      removeEdge(v, u);
+    }
+    for (V u : findPredecessors(v)) {
+      removeEdge(u, v);
     }
     graph.remove(v);
+    vertexIndex.release(v);
+    journal.vertexRemoved(v);
+  }
+
+  /**
+   * Finds the vertices that have an edge towards a given vertex. This implementation scans all the
+   * vertices of the graph, thus subclasses that keep track of predecessors should override it.
+   */
+  protected Collection<V> findPredecessors(V v) {
+    Collection<V> ret = new ArrayList<>();
+    graph.forEach((u, map) -> {
+      if (map.containsKey(v)) {
+        ret.add(u);
+      }
+    });
+    return ret;
   }
 
   /**
@@ -79,7 +108,44 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> extends
    */
   @Override
   public void addEdge(E edge) {
+    V source = edge.getSource();
+    V target = edge.getTarget();
+    boolean newSource = !graph.containsKey(source);
+    boolean newTarget = !graph.containsKey(target) && !target.equals(source);
+    boolean present = edge.equals(getEdge(source, target)) || edge.equals(getEdge(target, source));
+    E replaced = getEdge(source, target);
+    E reverseReplaced = edge.getEdgeType() == EdgeType.Undirected ? getEdge(target, source) : null;
     super.addEdge(edge);
+    if (newSource) {
+      journal.vertexAdded(source);
+    }
+    if (newTarget) {
+      journal.vertexAdded(target);
+    }
+    forgetIfUnused(replaced, edge);
+    if (reverseReplaced != null && !reverseReplaced.equals(replaced)) {
+      forgetIfUnused(reverseReplaced, edge);
+    }
+    if (!present) {
+      journal.edgeAdded(edge);
+    }
+  }
+
+  /**
+   * Removes an edge replaced by another one from the set of edges and publishes its removal,
+   * unless it is still in the adjacency of one of its vertices, e.g. an undirected edge replaced by
+   * a directed edge in a single direction.
+   */
+  private void forgetIfUnused(E replaced, E edge) {
+    if (replaced == null || replaced.equals(edge)) {
+      return;
+    }
+    V source = replaced.getSource();
+    V target = replaced.getTarget();
+    if (!replaced.equals(getEdge(source, target)) && !replaced.equals(getEdge(target, source))) {
+      edges.remove(replaced);
+      journal.edgeRemoved(replaced);
+    }
   }
 
   /**
@@ -87,11 +153,12 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> extends
    */
   @Override
   public void removeEdge(E edge) {
-    if (edge.getEdgeType() == EdgeType.Directed) {
-      this.removeEdge(edge.getSource(), edge.getTarget());
-    } else {
-      this.removeEdge(edge.getSource(), edge.getTarget());
-      this.removeEdge(edge.getTarget(), edge.getSource());
+    V source = edge.getSource();
+    V target = edge.getTarget();
+    if (edge.equals(getEdge(source, target))) {
+      this.removeEdge(source, target);
+    } else if (edge.getEdgeType() == EdgeType.Undirected && edge.equals(getEdge(target, source))) {
+      this.removeEdge(target, source);
     }
     edges.remove(edge);
   }
@@ -103,14 +170,62 @@ public class SparseGraph<V extends Vertex, E extends Edge<V>> extends
   public void removeEdge(V from, V to) {
     Map<V, E> map = graph.get(from);
     if (map != null) {
-      if (map.containsKey(to)) {
-        E edge = map.get(to);
-        map.remove(from);
-        edges.remove(edge);
+      E edge = map.remove(to);
+      if (edge != null) {
         if (edge.getEdgeType() == EdgeType.Undirected) {
-          removeEdge(to, from);
+          Map<V, E> reverse = graph.get(to);
+          if (reverse != null && edge.equals(reverse.get(from))) {
+            reverse.remove(from);
+          }
         }
+        edges.remove(edge);
+        journal.edgeRemoved(edge);
+      }
+    }
+  }
+
+  /**
+   * Reads the successors from the adjacency maps, since the table of successors that the immutable
+   * graph builds would not follow the changes of this graph. Each call allocates one iterator.
+   */
+  @Override
+  public void forEachSuccessor(V v, Consumer<? super V> action) {
+    Map<V, E> adjacency = graph.get(v);
+    if (adjacency != null) {
+      for (V successor : adjacency.keySet()) {
+        action.accept(successor);
+      }
+    }
+  }
+
+  /**
+   * Reads the successor ids from the adjacency maps, as {@link #forEachSuccessor(Vertex, Consumer)}
+   * does.
+   */
+  @Override
+  public void forEachSuccessor(int id, IntConsumer action) {
+    Map<V, E> adjacency = graph.get(vertexIndex.getVertex(id));
+    if (adjacency != null) {
+      for (V successor : adjacency.keySet()) {
+        action.accept(vertexIndex.getId(successor));
       }
     }
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ChangeJournal<V, E> getJournal() {
+    return journal;
+  }
+
+  /**
+   * Gets the version of this graph, which is the version of the last change published in its
+   * journal.
+   */
+  @Override
+  public long getVersion() {
+    return journal.getVersion();
+  }
 }
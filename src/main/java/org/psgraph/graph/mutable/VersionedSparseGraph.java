@@ -0,0 +1,941 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import org.psgraph.graph.ConcurrentVertexRegistry;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.GraphSnapshot;
+import org.psgraph.graph.SparseRepresentation;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+
+/**
+ * A mutable sparse graph that provides immutable snapshots in O(1). The adjacency of a vertex is
+ * never modified once published: every modification copies the adjacency of the vertices it changes
+ * and links the copies to their previous versions, while the vertices that did not change keep
+ * sharing their adjacency with all the snapshots. A snapshot just records the version of the graph
+ * when it was taken and reads, for every vertex, the newest adjacency not newer than that version.
+ *
+ * The versions that are no longer seen by any open snapshot are discarded when their vertices are
+ * modified again or when the oldest snapshot is closed, so the memory overhead is proportional to
+ * the modifications made while snapshots are open. Writers are serialized by a lock, while the
+ * graph and its snapshots are read without locking, thus long-running analyses may run on
+ * snapshots while the graph keeps changing.
+ *
+ * A graph created as single threaded modifies the adjacency in place while no snapshot is open, as
+ * the {@link SparseGraph} does, so it costs nothing extra until snapshots are taken. In exchange,
+ * such a graph must not be read while it is modified; only its snapshots may be read concurrently.
+ *
+ * Since the adjacencies are replaced rather than modified, the successors are iterated from them
+ * and not from a table of successor ids as in the immutable SparseGraph, so each forEachSuccessor
+ * call allocates one iterator.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.GraphSnapshot
+ */
+public class VersionedSparseGraph<V extends Vertex, E extends Edge<V>> implements Graph<V, E> {
+
+  private final SparseRepresentation sparseRepresentation;
+  private final boolean singleThreaded;
+  private final ConcurrentMap<V, Version<V, E>> heads = new ConcurrentHashMap<>();
+  private final Set<V> vertices = ConcurrentHashMap.newKeySet();
+  private final Set<E> edges = ConcurrentHashMap.newKeySet();
+  private final ConcurrentVertexRegistry<V> vertexIndex = new ConcurrentVertexRegistry<>();
+  /**
+   * Versions of the owners of every vertex id, since the ids released by removed vertices are
+   * recycled.
+   */
+  private volatile AtomicReferenceArray<Owner<V>> owners = new AtomicReferenceArray<>(16);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ChangeJournal<V, E> journal = new ChangeJournal<>();
+  private volatile long version;
+  /**
+   * The fields below are only accessed by the thread that holds the lock.
+   */
+  private final Map<V, Set<V>> predecessors = new HashMap<>();
+  private final TreeMap<Long, Integer> openSnapshots = new TreeMap<>();
+  private final Set<V> history = new HashSet<>();
+  private final Set<Integer> ownerHistory = new HashSet<>();
+  private final List<V> written = new ArrayList<>();
+  private final List<Integer> ownersWritten = new ArrayList<>();
+  private boolean modifiedInPlace;
+
+  public VersionedSparseGraph() {
+    this(SparseRepresentation.Hash);
+  }
+
+  public VersionedSparseGraph(SparseRepresentation sparseRepresentation) {
+    this(sparseRepresentation, false);
+  }
+
+  /**
+   * @param sparseRepresentation The representation of the adjacency of the vertices.
+   * @param singleThreaded Whether the adjacency is modified in place while no snapshot is open,
+   * in which case the graph itself must not be read concurrently with its modifications.
+   */
+  public VersionedSparseGraph(SparseRepresentation sparseRepresentation, boolean singleThreaded) {
+    this.sparseRepresentation = sparseRepresentation;
+    this.singleThreaded = singleThreaded;
+  }
+
+  public VersionedSparseGraph(Collection<E> edges) {
+    this(SparseRepresentation.Hash, edges);
+  }
+
+  public VersionedSparseGraph(SparseRepresentation sparseRepresentation, Collection<E> edges) {
+    this(sparseRepresentation);
+    edges.forEach(e -> addEdge(e));
+  }
+
+  /**
+   * Builds a Map for the specified graph representation.
+   */
+  private <T1, T2> Map<T1, T2> newMap() {
+    if (sparseRepresentation == SparseRepresentation.Hash) {
+      return new HashMap<>();
+    } else {
+      return new LinkedHashMap<>();
+    }
+  }
+
+  /**
+   * Gets the current version of this graph, which is increased by every modification. The
+   * snapshots report the version of the graph when they were taken.
+   */
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ChangeJournal<V, E> getJournal() {
+    return journal;
+  }
+
+  /**
+   * Takes an immutable snapshot of the current state of this graph, in O(1). The snapshot must be
+   * closed when it is no longer needed.
+   */
+  public GraphSnapshot<V, E> snapshot() {
+    lock.lock();
+    try {
+      long v = version;
+      openSnapshots.merge(v, 1, Integer::sum);
+      return new Snapshot(v, vertices.size(), vertexIndex.getIdBound());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases a snapshot and discards the versions that were only seen by it.
+   */
+  private void release(long snapshotVersion) {
+    lock.lock();
+    try {
+      long floor = floor();
+      if (openSnapshots.merge(snapshotVersion, -1, Integer::sum) == 0) {
+        openSnapshots.remove(snapshotVersion);
+      }
+      if (floor() != floor) {
+        for (V v : new ArrayList<>(history)) {
+          prune(v);
+        }
+        for (Integer id : new ArrayList<>(ownerHistory)) {
+          pruneOwner(id);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the oldest version that is still seen by an open snapshot.
+   */
+  private long floor() {
+    return openSnapshots.isEmpty() ? Long.MAX_VALUE : openSnapshots.firstKey();
+  }
+
+  /**
+   * Publishes the versions written by the current modification and discards the versions that are
+   * no longer seen by any snapshot.
+   */
+  private void commit() {
+    if (written.isEmpty() && ownersWritten.isEmpty() && !modifiedInPlace) {
+      return;
+    }
+    version++;
+    modifiedInPlace = false;
+    for (V v : written) {
+      prune(v);
+    }
+    for (Integer id : ownersWritten) {
+      pruneOwner(id);
+    }
+    written.clear();
+    ownersWritten.clear();
+  }
+
+  /**
+   * Writes a new version of the adjacency of a given vertex. A vertex written more than once by the
+   * same modification keeps only its last version.
+   *
+   * @param adjacency The new adjacency or null if the vertex was removed.
+   */
+  private void write(V v, int id, Map<V, E> adjacency) {
+    long next = version + 1;
+    Version<V, E> head = heads.get(v);
+    Version<V, E> previous = head != null && head.version == next ? head.previous : head;
+    heads.put(v, new Version<>(next, id, adjacency, previous));
+    written.add(v);
+  }
+
+  /**
+   * Writes a new owner of a given vertex id.
+   *
+   * @param v The owner or null if the id was released.
+   */
+  private void writeOwner(int id, V v) {
+    long next = version + 1;
+    AtomicReferenceArray<Owner<V>> array = owners;
+    if (id >= array.length()) {
+      AtomicReferenceArray<Owner<V>> grown =
+          new AtomicReferenceArray<>(Math.max(id + 1, array.length() * 2));
+      for (int i = 0; i < array.length(); i++) {
+        grown.set(i, array.get(i));
+      }
+      owners = grown;
+      array = grown;
+    }
+    Owner<V> head = array.get(id);
+    Owner<V> previous = head != null && head.version == next ? head.previous : head;
+    array.set(id, new Owner<>(next, v, previous));
+    ownersWritten.add(id);
+  }
+
+  /**
+   * Discards the versions of a given vertex that are older than the newest version seen by the
+   * oldest open snapshot.
+   */
+  private void prune(V v) {
+    long floor = floor();
+    Version<V, E> head = heads.get(v);
+    if (head == null) {
+      history.remove(v);
+      return;
+    }
+    Version<V, E> n = head;
+    while (n != null && n.version > floor) {
+      n = n.previous;
+    }
+    if (n != null) {
+      n.previous = null;
+    }
+    if (n == head && head.adjacency == null) {
+      heads.remove(v, head);
+      history.remove(v);
+    } else if (head.previous == null && head.adjacency != null) {
+      history.remove(v);
+    } else {
+      history.add(v);
+    }
+  }
+
+  private void pruneOwner(int id) {
+    long floor = floor();
+    AtomicReferenceArray<Owner<V>> array = owners;
+    Owner<V> head = array.get(id);
+    if (head == null) {
+      ownerHistory.remove(id);
+      return;
+    }
+    Owner<V> n = head;
+    while (n != null && n.version > floor) {
+      n = n.previous;
+    }
+    if (n != null) {
+      n.previous = null;
+    }
+    if (n == head && head.vertex == null) {
+      array.compareAndSet(id, head, null);
+      ownerHistory.remove(id);
+    } else if (head.previous == null && head.vertex != null) {
+      ownerHistory.remove(id);
+    } else {
+      ownerHistory.add(id);
+    }
+  }
+
+  /**
+   * Gets the newest version of a given vertex not newer than a given version.
+   *
+   * @return The version of the vertex or null if the vertex did not exist in the informed version.
+   */
+  private Version<V, E> resolve(Object v, long at) {
+    Version<V, E> n = heads.get(v);
+    while (n != null && n.version > at) {
+      n = n.previous;
+    }
+    return n == null || n.adjacency == null ? null : n;
+  }
+
+  /**
+   * Gets the adjacency of a given vertex in the current version.
+   */
+  private Map<V, E> adjacency(Object v) {
+    Version<V, E> head = heads.get(v);
+    return head == null ? null : head.adjacency;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addVertex(V v) {
+    lock.lock();
+    try {
+      createVertex(v);
+      commit();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void createVertex(V v) {
+    if (!vertices.contains(v)) {
+      int id = vertexIndex.register(v);
+      writeOwner(id, v);
+      write(v, id, newMap());
+      vertices.add(v);
+      journal.vertexAdded(v);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeVertex(V v) {
+    lock.lock();
+    try {
+      Map<V, E> map = adjacency(v);
+      if (map != null) {
+        for (V u : new ArrayList<>(map.keySet())) {
+          disconnect(v, u);
+        }
+        Set<V> incoming = predecessors.get(v);
+        if (incoming != null) {
+          for (V u : new ArrayList<>(incoming)) {
+            disconnect(u, v);
+          }
+        }
+        predecessors.remove(v);
+        vertices.remove(v);
+        int id = vertexIndex.release(v);
+        write(v, id, null);
+        writeOwner(id, null);
+        journal.vertexRemoved(v);
+      }
+      commit();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addEdge(E edge) {
+    lock.lock();
+    try {
+      V source = edge.getSource();
+      V target = edge.getTarget();
+      boolean present = edge.equals(getEdge(source, target))
+          || edge.equals(getEdge(target, source));
+      createVertex(source);
+      createVertex(target);
+      E replaced = link(source, target, edge);
+      E reverseReplaced = edge.getEdgeType() == EdgeType.Undirected ? link(target, source, edge)
+          : null;
+      edges.add(edge);
+      forgetIfUnused(replaced, edge);
+      if (reverseReplaced != null && !reverseReplaced.equals(replaced)) {
+        forgetIfUnused(reverseReplaced, edge);
+      }
+      if (!present) {
+        journal.edgeAdded(edge);
+      }
+      commit();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes an edge replaced by another one from the set of edges and publishes its removal,
+   * unless it is still in the adjacency of one of its vertices.
+   */
+  private void forgetIfUnused(E replaced, E edge) {
+    if (replaced == null || replaced.equals(edge)) {
+      return;
+    }
+    V source = replaced.getSource();
+    V target = replaced.getTarget();
+    if (!replaced.equals(getEdge(source, target)) && !(replaced.getEdgeType()
+        == EdgeType.Undirected && replaced.equals(getEdge(target, source)))) {
+      edges.remove(replaced);
+      journal.edgeRemoved(replaced);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(E edge) {
+    lock.lock();
+    try {
+      V source = edge.getSource();
+      V target = edge.getTarget();
+      if (edge.equals(getEdge(source, target))) {
+        disconnect(source, target);
+      } else if (edge.getEdgeType() == EdgeType.Undirected
+          && edge.equals(getEdge(target, source))) {
+        disconnect(target, source);
+      }
+      edges.remove(edge);
+      commit();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeEdge(V from, V to) {
+    lock.lock();
+    try {
+      disconnect(from, to);
+      commit();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the edge from one vertex to another and its reverse, when the edge is undirected.
+   */
+  private void disconnect(V from, V to) {
+    E edge = unlink(from, to);
+    if (edge != null) {
+      if (edge.getEdgeType() == EdgeType.Undirected && edge.equals(getEdge(to, from))) {
+        unlink(to, from);
+      }
+      edges.remove(edge);
+      journal.edgeRemoved(edge);
+    }
+  }
+
+  /**
+   * Gets the adjacency of a vertex to be changed by the current modification. The adjacency is
+   * copied to a new version, unless the graph is single threaded and no snapshot may see the
+   * current one, i.e. no snapshot is open or the vertex was already written by this modification.
+   */
+  private Map<V, E> writable(V v) {
+    Version<V, E> head = heads.get(v);
+    if (singleThreaded && (openSnapshots.isEmpty() || head.version > version)) {
+      modifiedInPlace = true;
+      return head.adjacency;
+    }
+    Map<V, E> adjacency = newMap();
+    adjacency.putAll(head.adjacency);
+    write(v, head.id, adjacency);
+    return adjacency;
+  }
+
+  /**
+   * Adds to the adjacency of a vertex an edge towards another vertex.
+   *
+   * @return The edge replaced or null if there was no edge between the vertices.
+   */
+  private E link(V from, V to, E edge) {
+    E replaced = writable(from).put(to, edge);
+    predecessors.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+    return replaced;
+  }
+
+  /**
+   * Removes from the adjacency of a vertex the edge towards another vertex.
+   *
+   * @return The edge removed or null if there was no edge between the vertices.
+   */
+  private E unlink(V from, V to) {
+    Version<V, E> head = heads.get(from);
+    if (head == null || head.adjacency == null || !head.adjacency.containsKey(to)) {
+      return null;
+    }
+    E removed = writable(from).remove(to);
+    Set<V> incoming = predecessors.get(to);
+    if (incoming != null) {
+      incoming.remove(from);
+      if (incoming.isEmpty()) {
+        predecessors.remove(to);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public E getEdge(V from, V to) {
+    Map<V, E> adjacency = adjacency(from);
+    return adjacency == null ? null : adjacency.get(to);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> getEdges(V v) {
+    Map<V, E> adjacency = adjacency(v);
+    return adjacency == null ? Collections.<E>emptyList()
+        : Collections.unmodifiableCollection(adjacency.values());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getVertices() {
+    return Collections.unmodifiableSet(vertices);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<E> getEdges() {
+    return Collections.unmodifiableSet(edges);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<V> getAdjacentVertices(V v) {
+    return getSuccessors(v);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachIncident(V v, BiConsumer<? super V, ? super E> action) {
+    Map<V, E> adjacency = adjacency(v);
+    if (adjacency != null) {
+      adjacency.forEach(action);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<V> getSuccessors(V v) {
+    Map<V, E> adjacency = adjacency(v);
+    return adjacency == null ? Collections.<V>emptySet()
+        : Collections.unmodifiableSet(adjacency.keySet());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(V v, Consumer<? super V> action) {
+    Map<V, E> adjacency = adjacency(v);
+    if (adjacency != null) {
+      for (V successor : adjacency.keySet()) {
+        action.accept(successor);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void forEachSuccessor(int id, IntConsumer action) {
+    Map<V, E> adjacency = adjacency(vertexIndex.getVertex(id));
+    if (adjacency != null) {
+      for (V successor : adjacency.keySet()) {
+        action.accept(vertexIndex.getId(successor));
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDegree(V v) {
+    Map<V, E> adjacency = adjacency(v);
+    return adjacency == null ? 0 : adjacency.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public VertexIndex<V> getVertexIndex() {
+    return vertexIndex;
+  }
+
+  /**
+   * A version of the adjacency of a vertex.
+   */
+  private static final class Version<V, E> {
+
+    final long version;
+    final int id;
+    /**
+     * The adjacency of the vertex, which is never modified unless the graph is single threaded
+     * and no open snapshot may see it, or null if the vertex was removed.
+     */
+    final Map<V, E> adjacency;
+    volatile Version<V, E> previous;
+
+    Version(long version, int id, Map<V, E> adjacency, Version<V, E> previous) {
+      this.version = version;
+      this.id = id;
+      this.adjacency = adjacency;
+      this.previous = previous;
+    }
+  }
+
+  /**
+   * A version of the owner of a vertex id.
+   */
+  private static final class Owner<V> {
+
+    final long version;
+    /**
+     * The owner of the id or null if the id was released.
+     */
+    final V vertex;
+    volatile Owner<V> previous;
+
+    Owner(long version, V vertex, Owner<V> previous) {
+      this.version = version;
+      this.vertex = vertex;
+      this.previous = previous;
+    }
+  }
+
+  /**
+   * Snapshot of the graph in a given version. Its vertex ids are the ids the vertices had in that
+   * version, which are unique since an id is only recycled after its owner is removed.
+   */
+  private final class Snapshot implements GraphSnapshot<V, E> {
+
+    private final long at;
+    private final int vertexCount;
+    private final int idBound;
+    private final VertexIndex<V> index = new SnapshotIndex();
+    private volatile boolean closed;
+    private volatile Set<E> edgeSet;
+
+    Snapshot(long at, int vertexCount, int idBound) {
+      this.at = at;
+      this.vertexCount = vertexCount;
+      this.idBound = idBound;
+    }
+
+    private void checkOpen() {
+      if (closed) {
+        throw new IllegalStateException("The snapshot of version " + at + " is closed.");
+      }
+    }
+
+    private Map<V, E> adjacencyAt(Object v) {
+      checkOpen();
+      Version<V, E> n = resolve(v, at);
+      return n == null ? null : n.adjacency;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getVersion() {
+      return at;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release(at);
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E getEdge(V from, V to) {
+      Map<V, E> adjacency = adjacencyAt(from);
+      return adjacency == null ? null : adjacency.get(to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<E> getEdges(V v) {
+      Map<V, E> adjacency = adjacencyAt(v);
+      return adjacency == null ? Collections.<E>emptyList()
+          : Collections.unmodifiableCollection(adjacency.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<V> getVertices() {
+      checkOpen();
+      return new AbstractSet<V>() {
+
+        @Override
+        public boolean contains(Object o) {
+          return adjacencyAt(o) != null;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+          return new VertexIterator();
+        }
+
+        @Override
+        public int size() {
+          return vertexCount;
+        }
+      };
+    }
+
+    /**
+     * Gets the edges of the snapshot, which are collected from the adjacency of its vertices the
+     * first time they are requested.
+     */
+    @Override
+    public Set<E> getEdges() {
+      checkOpen();
+      Set<E> ret = edgeSet;
+      if (ret == null) {
+        Set<E> collected = new HashSet<>();
+        for (V v : getVertices()) {
+          collected.addAll(adjacencyAt(v).values());
+        }
+        ret = Collections.unmodifiableSet(collected);
+        edgeSet = ret;
+      }
+      return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<V> getAdjacentVertices(V v) {
+      return getSuccessors(v);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachIncident(V v, BiConsumer<? super V, ? super E> action) {
+      Map<V, E> adjacency = adjacencyAt(v);
+      if (adjacency != null) {
+        adjacency.forEach(action);
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<V> getSuccessors(V v) {
+      Map<V, E> adjacency = adjacencyAt(v);
+      return adjacency == null ? Collections.<V>emptySet()
+          : Collections.unmodifiableSet(adjacency.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(V v, Consumer<? super V> action) {
+      Map<V, E> adjacency = adjacencyAt(v);
+      if (adjacency != null) {
+        for (V successor : adjacency.keySet()) {
+          action.accept(successor);
+        }
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachSuccessor(int id, IntConsumer action) {
+      Map<V, E> adjacency = adjacencyAt(index.getVertex(id));
+      if (adjacency != null) {
+        for (V successor : adjacency.keySet()) {
+          action.accept(index.getId(successor));
+        }
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDegree(V v) {
+      Map<V, E> adjacency = adjacencyAt(v);
+      return adjacency == null ? 0 : adjacency.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VertexIndex<V> getVertexIndex() {
+      checkOpen();
+      return index;
+    }
+
+    /**
+     * Iterates over the vertices that existed in the version of the snapshot.
+     */
+    private final class VertexIterator implements Iterator<V> {
+
+      private final Iterator<V> candidates = heads.keySet().iterator();
+      private V next;
+
+      @Override
+      public boolean hasNext() {
+        checkOpen();
+        while (next == null && candidates.hasNext()) {
+          V v = candidates.next();
+          if (resolve(v, at) != null) {
+            next = v;
+          }
+        }
+        return next != null;
+      }
+
+      @Override
+      public V next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        V ret = next;
+        next = null;
+        return ret;
+      }
+    }
+
+    /**
+     * Vertex index of the snapshot, which reads the ids assigned in its version.
+     */
+    private final class SnapshotIndex implements VertexIndex<V> {
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int getId(V v) {
+        if (v == null) {
+          return -1;
+        }
+        checkOpen();
+        Version<V, E> n = resolve(v, at);
+        return n == null ? -1 : n.id;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public V getVertex(int id) {
+        checkOpen();
+        AtomicReferenceArray<Owner<V>> array = owners;
+        if (id < 0 || id >= idBound || id >= array.length()) {
+          return null;
+        }
+        Owner<V> n = array.get(id);
+        while (n != null && n.version > at) {
+          n = n.previous;
+        }
+        return n == null ? null : n.vertex;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int size() {
+        return vertexCount;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int getIdBound() {
+        return idBound;
+      }
+    }
+  }
+}
@@ -0,0 +1,268 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.mutable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.ElementCodec;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.exception.GraphException;
+
+/**
+ * Append-only log of the mutations of a graph. Each mutation is stored in a record made of the
+ * length of its data, the CRC32 of its data, the code of the operation and the encoded elements.
+ * The records are accumulated in memory and written with a single fsync once a group of them is
+ * complete or when {@link #sync()} is called, thus the cost of the fsync is shared by the whole
+ * group.
+ *
+ * When the log is replayed, a record whose length exceeds the file or whose checksum does not
+ * match is considered the tail of an interrupted write: it is discarded together with everything
+ * after it, and the log is truncated so that new records follow the last valid one.
+ *
+ * @author Wilson de Carvalho
+ */
+final class WriteAheadLog<V extends Vertex, E extends Edge<V>> implements Closeable {
+
+  private static final byte ADD_VERTEX = 1;
+  private static final byte REMOVE_VERTEX = 2;
+  private static final byte ADD_EDGE = 3;
+  private static final byte REMOVE_EDGE = 4;
+  private static final byte REMOVE_EDGE_BETWEEN = 5;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Path path;
+  private final ElementCodec<V, E> codec;
+  private final int groupSize;
+  private final Buffer record = new Buffer();
+  private final DataOutputStream recordOutput = new DataOutputStream(record);
+  private final Buffer group = new Buffer();
+  private final DataOutputStream groupOutput = new DataOutputStream(group);
+  private final CRC32 crc = new CRC32();
+  private FileChannel channel;
+  /**
+   * Number of records in the log, including the ones not written yet.
+   */
+  private int size;
+  private int pending;
+
+  /**
+   * @param groupSize The number of records written by each fsync.
+   */
+  WriteAheadLog(Path path, ElementCodec<V, E> codec, int groupSize) {
+    this.path = path;
+    this.codec = codec;
+    this.groupSize = groupSize;
+  }
+
+  /**
+   * Applies the valid records of the log file, if it exists, to a given graph and opens the log to
+   * append new records after them.
+   *
+   * @return The number of records applied.
+   */
+  int replay(Graph<V, E> graph) throws GraphException {
+    long end = 0;
+    int count = 0;
+    if (Files.exists(path)) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+          Files.newInputStream(path), BUFFER_SIZE))) {
+        long fileSize = Files.size(path);
+        byte[] data = new byte[256];
+        while (fileSize - end >= RECORD_HEADER_SIZE) {
+          int length = in.readInt();
+          int checksum = in.readInt();
+          if (length < 1 || length > fileSize - end - RECORD_HEADER_SIZE) {
+            break;
+          }
+          if (length > data.length) {
+            data = new byte[Math.max(length, data.length * 2)];
+          }
+          in.readFully(data, 0, length);
+          crc.reset();
+          crc.update(data, 0, length);
+          if ((int) crc.getValue() != checksum) {
+            break;
+          }
+          try {
+            apply(graph, new DataInputStream(new ByteArrayInputStream(data, 0, length)));
+          } catch (IOException e) {
+            throw new GraphException("Corrupted record at position " + end + " of the log " + path,
+                e);
+          }
+          end += RECORD_HEADER_SIZE + length;
+          count++;
+        }
+      } catch (IOException e) {
+        throw new GraphException("Could not read the log " + path, e);
+      }
+    }
+    try {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      if (channel.size() > end) {
+        channel.truncate(end);
+      }
+      channel.position(end);
+      channel.force(true);
+    } catch (IOException e) {
+      throw new GraphException("Could not open the log " + path, e);
+    }
+    size = count;
+    return count;
+  }
+
+  private void apply(Graph<V, E> graph, DataInputStream in) throws IOException {
+    byte operation = in.readByte();
+    switch (operation) {
+      case ADD_VERTEX:
+        graph.addVertex(codec.readVertex(in));
+        break;
+      case REMOVE_VERTEX:
+        graph.removeVertex(codec.readVertex(in));
+        break;
+      case ADD_EDGE:
+        graph.addEdge(readEdge(in));
+        break;
+      case REMOVE_EDGE:
+        graph.removeEdge(readEdge(in));
+        break;
+      case REMOVE_EDGE_BETWEEN:
+        V from = codec.readVertex(in);
+        graph.removeEdge(from, codec.readVertex(in));
+        break;
+      default:
+        throw new IOException("Unknown operation " + operation);
+    }
+  }
+
+  private E readEdge(DataInputStream in) throws IOException {
+    V source = codec.readVertex(in);
+    V target = codec.readVertex(in);
+    EdgeType edgeType = in.readBoolean() ? EdgeType.Undirected : EdgeType.Directed;
+    return codec.readEdge(source, target, edgeType, in);
+  }
+
+  private void writeEdge(E edge) throws IOException {
+    codec.writeVertex(edge.getSource(), recordOutput);
+    codec.writeVertex(edge.getTarget(), recordOutput);
+    recordOutput.writeBoolean(edge.getEdgeType() == EdgeType.Undirected);
+    codec.writeEdge(edge, recordOutput);
+  }
+
+  void addVertex(V v) throws IOException {
+    begin(ADD_VERTEX);
+    codec.writeVertex(v, recordOutput);
+    end();
+  }
+
+  void removeVertex(V v) throws IOException {
+    begin(REMOVE_VERTEX);
+    codec.writeVertex(v, recordOutput);
+    end();
+  }
+
+  void addEdge(E edge) throws IOException {
+    begin(ADD_EDGE);
+    writeEdge(edge);
+    end();
+  }
+
+  void removeEdge(E edge) throws IOException {
+    begin(REMOVE_EDGE);
+    writeEdge(edge);
+    end();
+  }
+
+  void removeEdge(V from, V to) throws IOException {
+    begin(REMOVE_EDGE_BETWEEN);
+    codec.writeVertex(from, recordOutput);
+    codec.writeVertex(to, recordOutput);
+    end();
+  }
+
+  private void begin(byte operation) throws IOException {
+    record.reset();
+    recordOutput.writeByte(operation);
+  }
+
+  private void end() throws IOException {
+    crc.reset();
+    crc.update(record.array(), 0, record.size());
+    groupOutput.writeInt(record.size());
+    groupOutput.writeInt((int) crc.getValue());
+    record.writeTo(group);
+    size++;
+    if (++pending >= groupSize) {
+      sync();
+    }
+  }
+
+  /**
+   * Writes the pending records and waits until they are stored in the device.
+   */
+  void sync() throws IOException {
+    if (pending == 0) {
+      return;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(group.array(), 0, group.size());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+    group.reset();
+    pending = 0;
+  }
+
+  /**
+   * Gets the number of records in this log.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Writes the pending records and closes the log file, if it was opened.
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel == null) {
+      return;
+    }
+    try {
+      sync();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Byte array output stream whose array may be read without copies.
+   */
+  private static final class Buffer extends ByteArrayOutputStream {
+
+    byte[] array() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,319 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.EdgeType;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+
+/**
+ * Articulation points, bridges and biconnected components as described by Hopcroft, J. and Tarjan,
+ * R. E. (1973) in "Algorithm 447: efficient algorithms for graph manipulation". An articulation
+ * point is a vertex whose removal disconnects its component, e.g. a critical bus, and a bridge is
+ * an edge whose removal disconnects its component, e.g. a critical line or switch. The biconnected
+ * components are the maximal sets of edges in which any two edges lie on a common simple cycle.
+ * <b>Cost: O(V+E)</b>
+ *
+ * The direction of the edges is ignored. An undirected edge stored in the adjacency of both of its
+ * vertices counts once, while two edges between the same vertices, in either direction, form a
+ * cycle, thus neither of them is a bridge. The adjacency is copied to primitive arrays indexed by
+ * the vertex ids and the depth first search uses an explicit stack, so arbitrarily deep graphs are
+ * supported. Everything is computed in a single pass when any result is first requested, thus the
+ * results reflect the graph at that moment. The components are read only views over the order in
+ * which the search emitted the edges, so no set is allocated for each of them.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.StronglyConnectedComponents
+ */
+public class BiconnectedComponents<V extends Vertex, E extends Edge<V>> {
+
+  private final Graph<V, E> graph;
+  private Set<V> articulationPoints;
+  private Set<E> bridges;
+  private List<Set<E>> components;
+  private Links<E> links;
+  private int[] order;
+  private int[] blockOf;
+
+  public BiconnectedComponents(Graph<V, E> graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Gets the vertices whose removal increases the number of connected components of the graph.
+   */
+  public Set<V> articulationPoints() {
+    compute();
+    return articulationPoints;
+  }
+
+  /**
+   * Gets the edges whose removal increases the number of connected components of the graph.
+   */
+  public Set<E> bridges() {
+    compute();
+    return bridges;
+  }
+
+  /**
+   * Gets the edges of every biconnected component of the graph. Each bridge forms a component by
+   * itself.
+   */
+  public List<Set<E>> components() {
+    compute();
+    return components;
+  }
+
+  private void compute() {
+    if (components != null) {
+      return;
+    }
+    links = links();
+    int bound = links.offsets.length - 1;
+    VertexIndex<V> index = graph.getVertexIndex();
+    int[] discovery = new int[bound];
+    int[] low = new int[bound];
+    int[] parentLink = new int[bound];
+    int[] next = new int[bound];
+    Arrays.fill(discovery, -1);
+    int[] stack = new int[bound];
+    int[] linkStack = new int[links.edges.size()];
+    order = new int[links.edges.size()];
+    blockOf = new int[links.edges.size()];
+    int popped = 0;
+    Set<V> points = new HashSet<>();
+    Set<E> bridgeSet = new HashSet<>();
+    List<Set<E>> componentList = new ArrayList<>();
+    int time = 0;
+
+    for (int root = 0; root < bound; root++) {
+      if (discovery[root] != -1 || index.getVertex(root) == null) {
+        continue;
+      }
+      int children = 0;
+      int top = 0;
+      int linkTop = 0;
+      stack[top++] = root;
+      discovery[root] = low[root] = time++;
+      parentLink[root] = -1;
+      next[root] = links.offsets[root];
+      while (top > 0) {
+        int u = stack[top - 1];
+        if (next[u] < links.offsets[u + 1]) {
+          int pos = next[u]++;
+          int link = links.links[pos];
+          int w = links.targets[pos];
+          if (link == parentLink[u]) {
+            continue;
+          }
+          if (discovery[w] == -1) {
+            linkStack[linkTop++] = link;
+            parentLink[w] = link;
+            discovery[w] = low[w] = time++;
+            next[w] = links.offsets[w];
+            stack[top++] = w;
+          } else if (discovery[w] < discovery[u]) {
+            linkStack[linkTop++] = link;
+            low[u] = Math.min(low[u], discovery[w]);
+          }
+          continue;
+        }
+        top--;
+        if (top == 0) {
+          break;
+        }
+        int p = stack[top - 1];
+        low[p] = Math.min(low[p], low[u]);
+        if (low[u] >= discovery[p]) {
+          if (p == root) {
+            children++;
+          } else {
+            points.add(index.getVertex(p));
+          }
+          int start = popped;
+          int link;
+          do {
+            link = linkStack[--linkTop];
+            order[popped++] = link;
+            blockOf[link] = componentList.size();
+          } while (link != parentLink[u]);
+          componentList.add(new Block(componentList.size(), start, popped));
+          if (low[u] > discovery[p]) {
+            bridgeSet.add(links.edges.get(parentLink[u]));
+          }
+        }
+      }
+      if (children > 1) {
+        points.add(index.getVertex(root));
+      }
+    }
+    articulationPoints = Collections.unmodifiableSet(points);
+    bridges = Collections.unmodifiableSet(bridgeSet);
+    components = Collections.unmodifiableList(componentList);
+  }
+
+  /**
+   * Read only view of the edges of a biconnected component, i.e. the links stored in
+   * <i>order[start..end-1]</i>. Membership is checked by scanning the row of the source of the
+   * edge, thus it costs O(d).
+   */
+  private class Block extends AbstractSet<E> {
+
+    private final int block;
+    private final int start;
+    private final int end;
+
+    Block(int block, int start, int end) {
+      this.block = block;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new Iterator<E>() {
+        private int pos = start;
+
+        @Override
+        public boolean hasNext() {
+          return pos < end;
+        }
+
+        @Override
+        public E next() {
+          if (pos >= end) {
+            throw new NoSuchElementException();
+          }
+          return links.edges.get(order[pos++]);
+        }
+      };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Edge)) {
+        return false;
+      }
+      E e = (E) o;
+      VertexIndex<V> index = graph.getVertexIndex();
+      int u = index.getId(e.getSource());
+      int v = index.getId(e.getTarget());
+      if (u == -1 || v == -1) {
+        return false;
+      }
+      for (int pos = links.offsets[u]; pos < links.offsets[u + 1]; pos++) {
+        int link = links.links[pos];
+        if (links.targets[pos] == v && blockOf[link] == block
+            && e.equals(links.edges.get(link))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+  }
+
+  /**
+   * Copies the adjacency of the graph to symmetric compressed rows, in which every link between
+   * two vertices is stored in the rows of both of them.
+   */
+  private Links<E> links() {
+    VertexIndex<V> index = graph.getVertexIndex();
+    Links<E> links = new Links<>(index.getIdBound());
+    for (int u = 0; u < index.getIdBound(); u++) {
+      V v = index.getVertex(u);
+      if (v == null) {
+        continue;
+      }
+      int source = u;
+      graph.forEachIncident(v, (w, e) -> {
+        int target = index.getId(w);
+        // An undirected edge in the adjacency of both vertices is taken from the smaller id
+        if (target == -1 || target == source || (target < source
+            && e.getEdgeType() == EdgeType.Undirected && e.equals(graph.getEdge(w, v)))) {
+          return;
+        }
+        links.add(source, target, e);
+      });
+    }
+    links.compress();
+    return links;
+  }
+
+  /**
+   * Symmetric compressed rows: after {@link #compress()}, the row of u is
+   * <i>targets[offsets[u]..offsets[u+1]-1]</i> and the link stored at the same position of
+   * <i>links</i> is the index of the edge in <i>edges</i>.
+   */
+  private static final class Links<E> {
+
+    final int[] offsets;
+    final List<E> edges = new ArrayList<>();
+    int[] targets;
+    int[] links;
+    private int[] sources = new int[16];
+    private int[] ends = new int[16];
+
+    Links(int bound) {
+      this.offsets = new int[bound + 1];
+    }
+
+    void add(int source, int target, E edge) {
+      int link = edges.size();
+      if (link == sources.length) {
+        sources = Arrays.copyOf(sources, link * 2);
+        ends = Arrays.copyOf(ends, link * 2);
+      }
+      sources[link] = source;
+      ends[link] = target;
+      edges.add(edge);
+      offsets[source + 1]++;
+      offsets[target + 1]++;
+    }
+
+    void compress() {
+      int bound = offsets.length - 1;
+      for (int u = 0; u < bound; u++) {
+        offsets[u + 1] += offsets[u];
+      }
+      targets = new int[offsets[bound]];
+      links = new int[offsets[bound]];
+      int[] fill = Arrays.copyOf(offsets, bound);
+      for (int link = 0; link < edges.size(); link++) {
+        int a = sources[link];
+        int b = ends[link];
+        targets[fill[a]] = b;
+        links[fill[a]++] = link;
+        targets[fill[b]] = a;
+        links[fill[b]++] = link;
+      }
+      sources = null;
+      ends = null;
+    }
+  }
+}
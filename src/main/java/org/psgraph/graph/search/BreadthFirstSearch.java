@@ -12,16 +12,15 @@
 package org.psgraph.graph.search;
 
 import java.util.ArrayDeque;
-import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import org.psgraph.graph.Edge;
 import org.psgraph.graph.Graph;
 import org.psgraph.graph.Vertex;
 import org.psgraph.graph.search.visitor.EdgeVisitor;
-import org.psgraph.graph.search.visitor.SearchDataVisitor;
-import org.psgraph.graph.search.visitor.VertexVisitor;
 import org.psgraph.graph.search.visitor.Visitor;
 
 /**
@@ -40,40 +39,9 @@ public class BreadthFirstSearch<V extends Vertex, E extends Edge<V>> extends
    * {@inheritDoc}
    */
   @Override
-  protected <T> void vertexSearch(V s, Visitor<T> visitor,
+  protected <T> Iterator<SearchData<V>> vertexIterator(V s, Visitor<T> visitor,
       Map<V, SearchData<V>> searchData) {
-    ArrayDeque<V> queue = new ArrayDeque<>();
-    VertexVisitor<V> vertexVisitor =
-        visitor instanceof VertexVisitor ? ((VertexVisitor<V>) visitor) : null;
-    SearchDataVisitor<V> searchDataVisitor =
-        visitor instanceof SearchDataVisitor ? ((SearchDataVisitor<V>) visitor) : null;
-    queue.push(s);
-    while (!queue.isEmpty()) {
-      V u = queue.pop();
-      SearchDataImpl<V> uData = (SearchDataImpl<V>) searchData.get(u);
-      for (V v : graph.getAdjacentVertices(u)) {
-        SearchDataImpl<V> vData = (SearchDataImpl<V>) searchData.get(v);
-        if (vData.getColor() == VertexColor.White) {
-          uData.addSucessors(v);
-          vData.setColor(VertexColor.Gray);
-          vData.setDepth(uData.getDepth() + 1);
-          vData.setPredecessor(u);
-        }
-      }
-      boolean ok = false;
-      if (vertexVisitor != null) {
-        ok = vertexVisitor.visit(u);
-      }
-      if (searchDataVisitor != null) {
-        ok = searchDataVisitor.visit(uData);
-      }
-      if (ok) {
-        for (V v : uData.getSucessors()) {
-          queue.push(v);
-        }
-      }
-      uData.setColor(VertexColor.Black);
-    }
+    return new VertexIterator<>(s, visitor, searchData);
   }
 
   /**
@@ -83,27 +51,74 @@ public class BreadthFirstSearch<V extends Vertex, E extends Edge<V>> extends
   protected Set<E> edgeSearch(V s, EdgeVisitor<V, E> visitor, Map<V, SearchData<V>> searchData) {
     Set<E> ret = new HashSet<>();
     ArrayDeque<V> queue = new ArrayDeque<>();
-    queue.push(s);
+    getSearchData(searchData, s).setColor(VertexColor.Gray);
+    queue.add(s);
     while (!queue.isEmpty()) {
-      V u = queue.pop();
-      SearchDataImpl<V> uData = (SearchDataImpl<V>) searchData.get(u);
-      Collection<V> adjU = graph.getAdjacentVertices(u);
-      for (V v : adjU) {
-        E e = graph.getEdge(u, v);
+      V u = queue.poll();
+      SearchDataImpl<V> uData = getSearchData(searchData, u);
+      graph.forEachIncident(u, (v, e) -> {
         if (visitor.visit(e)) {
           ret.add(e);
-          SearchDataImpl<V> vData = (SearchDataImpl<V>) searchData.get(v);
+          SearchDataImpl<V> vData = getSearchData(searchData, v);
           if (vData.getColor() == VertexColor.White) {
             uData.addSucessors(v);
             vData.setColor(VertexColor.Gray);
             vData.setDepth(uData.getDepth() + 1);
             vData.setPredecessor(u);
-            queue.push(v);
+            queue.add(v);
           }
         }
-      }
+      });
       uData.setColor(VertexColor.Black);
     }
     return ret;
   }
+
+  /**
+   * Lazy BFS: every call to next polls one vertex from the queue, discovers its adjacent vertices
+   * and visits it.
+   */
+  private class VertexIterator<T> implements Iterator<SearchData<V>> {
+
+    private final ArrayDeque<V> queue = new ArrayDeque<>();
+    private final Visitor<T> visitor;
+    private final Map<V, SearchData<V>> searchData;
+
+    VertexIterator(V s, Visitor<T> visitor, Map<V, SearchData<V>> searchData) {
+      this.visitor = visitor;
+      this.searchData = searchData;
+      getSearchData(searchData, s).setColor(VertexColor.Gray);
+      queue.add(s);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !queue.isEmpty();
+    }
+
+    @Override
+    public SearchData<V> next() {
+      if (queue.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      V u = queue.poll();
+      SearchDataImpl<V> uData = getSearchData(searchData, u);
+      graph.forEachSuccessor(u, v -> {
+        SearchDataImpl<V> vData = getSearchData(searchData, v);
+        if (vData.getColor() == VertexColor.White) {
+          uData.addSucessors(v);
+          vData.setColor(VertexColor.Gray);
+          vData.setDepth(uData.getDepth() + 1);
+          vData.setPredecessor(u);
+        }
+      });
+      if (visit(visitor, uData)) {
+        for (V v : uData.getSucessors()) {
+          queue.add(v);
+        }
+      }
+      uData.setColor(VertexColor.Black);
+      return uData;
+    }
+  }
 }
@@ -0,0 +1,235 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.search.visitor.EdgeVisitor;
+import org.psgraph.graph.search.visitor.SearchDataVisitor;
+import org.psgraph.graph.search.visitor.VertexVisitor;
+
+/**
+ * A graph search that memoizes the results of another search, so that the same trace requested
+ * over and over is only computed once while the graph does not change. The results are kept by
+ * start vertex in a least recently used cache of bounded size, and they are valid for the version
+ * of the graph in which they were computed: as soon as the version of the graph changes, all the
+ * results are discarded, since the versions never go back.
+ *
+ * Only the searches without visitors are cached, since a visitor may change the result and may
+ * have side effects. The other searches, including the lazy ones, are delegated to the underlying
+ * search. The results are copied before they are cached, since some searches return views that
+ * expire, e.g. the indexed searches that share a {@link SearchWorkspace}. The maps returned from
+ * the cache are shared by all the callers, thus they are unmodifiable. Each cache holds the results
+ * of a single search algorithm, and it may be used by multiple threads as long as the underlying
+ * search may.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.Graph#getVersion()
+ */
+public class CachedGraphSearch<V extends Vertex, E extends Edge<V>> implements GraphSearch<V, E> {
+
+  /**
+   * Key of the search of all the vertices of the graph.
+   */
+  private static final Object ALL_VERTICES = new Object();
+
+  private final Graph<V, E> graph;
+  private final GraphSearch<V, E> search;
+  private final Map<Object, Map<V, SearchData<V>>> results;
+  private long version;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param graph The graph searched by the search, whose version is checked before each lookup.
+   * @param search The search whose results are cached.
+   * @param capacity The maximum number of results kept.
+   */
+  public CachedGraphSearch(Graph<V, E> graph, GraphSearch<V, E> search, int capacity) {
+    this.graph = graph;
+    this.search = search;
+    this.results = new LinkedHashMap<Object, Map<V, SearchData<V>>>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Map<V, SearchData<V>>> eldest) {
+        return size() > capacity;
+      }
+    };
+    this.version = graph.getVersion();
+  }
+
+  /**
+   * Gets the cached result of a search, or performs it and caches the result unless the graph is
+   * modified meanwhile.
+   */
+  private Map<V, SearchData<V>> cached(Object key, V s) {
+    long current = graph.getVersion();
+    synchronized (results) {
+      if (current != version) {
+        results.clear();
+        version = current;
+      }
+      Map<V, SearchData<V>> ret = results.get(key);
+      if (ret != null) {
+        hits++;
+        return ret;
+      }
+      misses++;
+    }
+    Map<V, SearchData<V>> ret = copy(s == null ? search.search() : search.search(s));
+    synchronized (results) {
+      if (graph.getVersion() == current && version == current) {
+        results.put(key, ret);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Copies the result of a search to a map owned by the cache.
+   */
+  private Map<V, SearchData<V>> copy(Map<V, SearchData<V>> result) {
+    Map<V, SearchData<V>> ret = new LinkedHashMap<>(result.size() * 4 / 3 + 1);
+    result.forEach((v, data) -> ret.put(v, new SearchDataImpl<>(data)));
+    return Collections.unmodifiableMap(ret);
+  }
+
+  /**
+   * Discards all the cached results.
+   */
+  public void clear() {
+    synchronized (results) {
+      results.clear();
+    }
+  }
+
+  /**
+   * Gets the number of searches served by the cache.
+   */
+  public long getHits() {
+    synchronized (results) {
+      return hits;
+    }
+  }
+
+  /**
+   * Gets the number of searches performed because their results were not cached.
+   */
+  public long getMisses() {
+    synchronized (results) {
+      return misses;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search() {
+    return cached(ALL_VERTICES, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(VertexVisitor<V> visitor) {
+    return search.search(visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> search(EdgeVisitor<V, E> visitor) {
+    return search.search(visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s) {
+    return cached(s, s);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s, VertexVisitor<V> visitor) {
+    return search.search(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> search(V s, EdgeVisitor<V, E> visitor) {
+    return search.search(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(SearchDataVisitor<V> visitor) {
+    return search.search(visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s, SearchDataVisitor<V> visitor) {
+    return search.search(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s) {
+    return search.iterator(s);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s, VertexVisitor<V> visitor) {
+    return search.iterator(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s) {
+    return search.stream(s);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s, VertexVisitor<V> visitor) {
+    return search.stream(s, visitor);
+  }
+}
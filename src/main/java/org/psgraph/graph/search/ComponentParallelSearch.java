@@ -0,0 +1,316 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.search.visitor.EdgeVisitor;
+import org.psgraph.graph.search.visitor.SearchDataVisitor;
+import org.psgraph.graph.search.visitor.VertexVisitor;
+import org.psgraph.graph.search.visitor.Visitor;
+
+/**
+ * Runs the whole graph searches of another search in parallel, one group of connected components
+ * at a time. A search never leaves the connected component of its start vertex, thus the
+ * components are labeled first by the {@link ConnectedComponents} and then searched by the tasks
+ * of a {@link ForkJoinPool}, each one with its own search data. Within a component, the searches
+ * start in the white vertices in the same order as the sequential search, so the results are the
+ * same as the ones of the underlying search. The results of the tasks are only merged at the end.
+ * Graphs split in many components, such as networks with many de-energized islands, are searched
+ * in parallel, while a single component is searched sequentially.
+ *
+ * <b>Visitors' contract</b>: the visitors are invoked concurrently by the pool threads, thus they
+ * must be thread safe. The searches starting in a given vertex are delegated to the underlying
+ * search. The graph must not be modified during the search.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.ConnectedComponents
+ */
+public class ComponentParallelSearch<V extends Vertex, E extends Edge<V>> implements
+    GraphSearch<V, E> {
+
+  /**
+   * Number of vertices below which a task is not split.
+   */
+  private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  private final Graph<V, E> graph;
+  private final GraphSearchImpl<V, E> search;
+  private final ForkJoinPool pool;
+
+  public ComponentParallelSearch(Graph<V, E> graph, GraphSearchImpl<V, E> search) {
+    this(graph, search, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param graph The graph searched by the search.
+   * @param search The search whose whole graph searches are run in parallel.
+   * @param pool The pool where the components are labeled and searched.
+   */
+  public ComponentParallelSearch(Graph<V, E> graph, GraphSearchImpl<V, E> search,
+      ForkJoinPool pool) {
+    this.graph = graph;
+    this.search = search;
+    this.pool = pool;
+  }
+
+  /**
+   * Groups the vertices by component, keeping the order of {@link Graph#getVertices()} within each
+   * component.
+   */
+  private Components<V> components() {
+    int[] labels = new ConnectedComponents<>(graph, pool).labels();
+    VertexIndex<V> index = graph.getVertexIndex();
+    int count = 0;
+    for (int label : labels) {
+      count = Math.max(count, label + 1);
+    }
+    int[] starts = new int[count + 1];
+    for (int label : labels) {
+      if (label != -1) {
+        starts[label + 1]++;
+      }
+    }
+    for (int c = 0; c < count; c++) {
+      starts[c + 1] += starts[c];
+    }
+    @SuppressWarnings("unchecked")
+    V[] vertices = (V[]) new Vertex[starts[count]];
+    int[] next = new int[count];
+    System.arraycopy(starts, 0, next, 0, count);
+    for (V v : graph.getVertices()) {
+      int c = labels[index.getId(v)];
+      vertices[next[c]++] = v;
+    }
+    return new Components<>(vertices, starts);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search() {
+    return search((VertexVisitor<V>) v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(VertexVisitor<V> visitor) {
+    return search((Visitor<V>) visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(SearchDataVisitor<V> visitor) {
+    return search((Visitor<SearchData<V>>) visitor);
+  }
+
+  private <T> Map<V, SearchData<V>> search(Visitor<T> visitor) {
+    Components<V> components = components();
+    List<Map<V, SearchData<V>>> parts = pool.invoke(new ComponentTask<>(components, 0,
+        components.count(), (from, to) -> {
+          Map<V, SearchData<V>> searchData = new HashMap<>();
+          for (int i = from; i < to; i++) {
+            V v = components.vertices[i];
+            searchData.put(v, new SearchDataImpl<>(v));
+          }
+          for (int i = from; i < to; i++) {
+            V v = components.vertices[i];
+            if (searchData.get(v).getColor() == VertexColor.White) {
+              search.vertexSearch(v, visitor, searchData);
+            }
+          }
+          return searchData;
+        }));
+    Map<V, SearchData<V>> ret = new HashMap<>((int) (components.vertices.length / 0.75f) + 1);
+    parts.forEach(ret::putAll);
+    return ret;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> search(EdgeVisitor<V, E> visitor) {
+    Components<V> components = components();
+    List<Set<E>> parts = pool.invoke(new ComponentTask<>(components, 0, components.count(),
+        (from, to) -> {
+          Set<E> edges = new HashSet<>();
+          Map<V, SearchData<V>> searchData = new HashMap<>();
+          for (int i = from; i < to; i++) {
+            V v = components.vertices[i];
+            searchData.put(v, new SearchDataImpl<>(v));
+          }
+          for (int i = from; i < to; i++) {
+            V v = components.vertices[i];
+            if (searchData.get(v).getColor() == VertexColor.White) {
+              edges.addAll(search.edgeSearch(v, visitor, searchData));
+            }
+          }
+          return edges;
+        }));
+    Set<E> ret = new HashSet<>();
+    parts.forEach(ret::addAll);
+    return ret;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s) {
+    return search.search(s);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s, VertexVisitor<V> visitor) {
+    return search.search(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<E> search(V s, EdgeVisitor<V, E> visitor) {
+    return search.search(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s, SearchDataVisitor<V> visitor) {
+    return search.search(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s) {
+    return search.iterator(s);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s, VertexVisitor<V> visitor) {
+    return search.iterator(s, visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s) {
+    return search.stream(s);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s, VertexVisitor<V> visitor) {
+    return search.stream(s, visitor);
+  }
+
+  /**
+   * The vertices grouped by component: the vertices of the component c are
+   * <i>vertices[starts[c]..starts[c+1]-1]</i>.
+   */
+  private static final class Components<V> {
+
+    final V[] vertices;
+    final int[] starts;
+
+    Components(V[] vertices, int[] starts) {
+      this.vertices = vertices;
+      this.starts = starts;
+    }
+
+    int count() {
+      return starts.length - 1;
+    }
+  }
+
+  /**
+   * Search of the vertices in a range [from, to) of the grouped vertices, which covers whole
+   * components.
+   */
+  private interface RangeSearch<R> {
+
+    R run(int from, int to);
+  }
+
+  /**
+   * Searches the components in a range [from, to) of components, splitting the range in halves of
+   * similar numbers of vertices while it has more than one component and more vertices than the
+   * sequential threshold.
+   */
+  private static final class ComponentTask<V, R> extends RecursiveTask<List<R>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Components<V> components;
+    private final int from;
+    private final int to;
+    private final RangeSearch<R> action;
+
+    ComponentTask(Components<V> components, int from, int to, RangeSearch<R> action) {
+      this.components = components;
+      this.from = from;
+      this.to = to;
+      this.action = action;
+    }
+
+    @Override
+    protected List<R> compute() {
+      int start = components.starts[from];
+      int end = components.starts[to];
+      if (to - from > 1 && end - start > SEQUENTIAL_THRESHOLD) {
+        // Splits at the component that starts closest to the middle vertex of the range
+        int middle = Arrays.binarySearch(components.starts, from, to, (start + end) >>> 1);
+        middle = Math.min(Math.max(middle < 0 ? -middle - 1 : middle, from + 1), to - 1);
+        ComponentTask<V, R> right = new ComponentTask<>(components, middle, to, action);
+        right.fork();
+        List<R> ret = new ComponentTask<>(components, from, middle, action).compute();
+        ret.addAll(right.join());
+        return ret;
+      }
+      List<R> ret = new ArrayList<>();
+      ret.add(action.run(start, end));
+      return ret;
+    }
+  }
+}
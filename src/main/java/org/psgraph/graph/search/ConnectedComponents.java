@@ -0,0 +1,147 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.RangeTask;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+
+/**
+ * Connected components labeling by a concurrent union-find over the vertex ids, in the style of
+ * Shiloach and Vishkin. The adjacency of the vertices is split in ranges processed in parallel by
+ * the tasks of a {@link ForkJoinPool}, and every adjacency entry links the trees of its vertices
+ * by a compare-and-set that always hooks the root with the larger id under the other root. Thus,
+ * the root of every tree is the smallest id of its component and the result does not depend on the
+ * order of the links. The paths are halved by the finds, also by compare-and-set.
+ * <b>Cost: O((V+E) * alpha(V)) work, without synchronization steps</b>
+ *
+ * The direction of the edges is ignored, i.e. the components are the weakly connected components
+ * of the graph. The graph must not be modified during the labeling.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.DynamicConnectivity
+ */
+public class ConnectedComponents<V extends Vertex, E extends Edge<V>> {
+
+  private final Graph<V, E> graph;
+  private final ForkJoinPool pool;
+
+  public ConnectedComponents(Graph<V, E> graph) {
+    this(graph, ForkJoinPool.commonPool());
+  }
+
+  public ConnectedComponents(Graph<V, E> graph, ForkJoinPool pool) {
+    this.graph = graph;
+    this.pool = pool;
+  }
+
+  /**
+   * Labels the components of the graph.
+   *
+   * @return The label of the component of each vertex, indexed by the vertex ids of the graph. The
+   * labels are numbered from 0 in the order of the smallest id of each component, and the ids that
+   * do not belong to any vertex are labeled -1.
+   */
+  public int[] labels() {
+    VertexIndex<V> index = graph.getVertexIndex();
+    int bound = index.getIdBound();
+    AtomicIntegerArray parents = new AtomicIntegerArray(bound);
+    RangeTask.forEachRange(pool, bound, (from, to) -> {
+      for (int u = from; u < to; u++) {
+        parents.set(u, index.getVertex(u) == null ? -1 : u);
+      }
+    });
+    RangeTask.forEachRange(pool, bound, (from, to) -> {
+      for (int u = from; u < to; u++) {
+        if (parents.get(u) != -1) {
+          int source = u;
+          graph.forEachSuccessor(u, v -> union(parents, source, v));
+        }
+      }
+    });
+    int[] labels = new int[bound];
+    RangeTask.forEachRange(pool, bound, (from, to) -> {
+      for (int u = from; u < to; u++) {
+        labels[u] = parents.get(u) == -1 ? -1 : find(parents, u);
+      }
+    });
+    // The roots precede the other vertices of their components, so a single pass numbers them
+    int count = 0;
+    for (int u = 0; u < bound; u++) {
+      if (labels[u] != -1) {
+        labels[u] = labels[u] == u ? count++ : labels[labels[u]];
+      }
+    }
+    return labels;
+  }
+
+  /**
+   * Gets the vertices of every component of the graph, in the order of their labels.
+   */
+  public List<Set<V>> components() {
+    int[] labels = labels();
+    VertexIndex<V> index = graph.getVertexIndex();
+    List<Set<V>> ret = new ArrayList<>();
+    for (int u = 0; u < labels.length; u++) {
+      if (labels[u] == ret.size()) {
+        ret.add(new HashSet<>());
+      }
+      if (labels[u] != -1) {
+        ret.get(labels[u]).add(index.getVertex(u));
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Finds the root of the tree of a given id, halving the path to it.
+   */
+  private static int find(AtomicIntegerArray parents, int u) {
+    while (true) {
+      int parent = parents.get(u);
+      if (parent == u) {
+        return u;
+      }
+      int grandparent = parents.get(parent);
+      if (parent != grandparent) {
+        parents.compareAndSet(u, parent, grandparent);
+      }
+      u = grandparent;
+    }
+  }
+
+  /**
+   * Links the trees of two ids, hooking the larger root under the smaller one.
+   */
+  private static void union(AtomicIntegerArray parents, int u, int v) {
+    while (true) {
+      u = find(parents, u);
+      v = find(parents, v);
+      if (u == v) {
+        return;
+      }
+      int high = Math.max(u, v);
+      int low = Math.min(u, v);
+      if (parents.compareAndSet(high, high, low)) {
+        return;
+      }
+    }
+  }
+}
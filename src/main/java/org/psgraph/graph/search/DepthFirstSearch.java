@@ -11,19 +11,25 @@
 
 package org.psgraph.graph.search;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import org.psgraph.graph.Edge;
 import org.psgraph.graph.Graph;
 import org.psgraph.graph.Vertex;
 import org.psgraph.graph.search.visitor.EdgeVisitor;
-import org.psgraph.graph.search.visitor.SearchDataVisitor;
-import org.psgraph.graph.search.visitor.VertexVisitor;
 import org.psgraph.graph.search.visitor.Visitor;
 
 /**
- * Depth First Search (DFS) algorithm. <b>Cost: Theta(V+E)</b>
+ * Depth First Search (DFS) algorithm. The recursion is replaced by an explicit stack, thus the
+ * depth of the search is not limited by the call stack. <b>Cost: Theta(V+E)</b>
  *
  * @author Wilson de Carvalho
  */
@@ -37,38 +43,31 @@ public class DepthFirstSearch<V extends Vertex, E extends Edge<V>> extends Graph
    * {@inheritDoc}
    */
   @Override
-  protected <T> void vertexSearch(V s, Visitor<T> visitor,
+  protected <T> Iterator<SearchData<V>> vertexIterator(V s, Visitor<T> visitor,
       Map<V, SearchData<V>> searchData) {
-    int time = 0;
-    dfsVisit(s, searchData, time, visitor);
+    return new VertexIterator<>(s, visitor, searchData);
   }
 
   /**
-   * Visits a given vertex and triggers the visitation of the adjacent non-visited vertices.
+   * Visits a given vertex and gets the frame that will trigger the visitation of the adjacent
+   * non-visited vertices.
    */
-  private <T> void dfsVisit(V u, Map<V, SearchData<V>> searchData, int time,
+  private <T> Frame<V> dfsVisit(V u, Map<V, SearchData<V>> searchData, int time,
       Visitor<T> visitor) {
     time += 1;
-    SearchDataImpl<V> uData = (SearchDataImpl<V>) searchData.get(u);
+    SearchDataImpl<V> uData = getSearchData(searchData, u);
     uData.setDepth(time);
     uData.setColor(VertexColor.Gray);
-    for (V v : graph.getAdjacentVertices(u)) {
-      SearchDataImpl<V> vData = (SearchDataImpl<V>) searchData.get(v);
+    graph.forEachSuccessor(u, v -> {
+      SearchDataImpl<V> vData = getSearchData(searchData, v);
       if (vData.getColor() == VertexColor.White) {
         uData.addSucessors(v);
         vData.setPredecessor(u);
       }
-    }
-    boolean ok = visitor instanceof VertexVisitor ? ((VertexVisitor<V>) visitor).visit(u)
-        : ((SearchDataVisitor<V>) visitor).visit(uData);
-    if (ok) {
-      for (V v : uData.getSucessors()) {
-        dfsVisit(v, searchData, time, visitor);
-      }
-    }
-    time += 1;
-    uData.setColor(VertexColor.Black);
-    uData.setTime(time);
+    });
+    Iterator<V> successors = visit(visitor, uData) ? uData.getSucessors().iterator()
+        : Collections.<V>emptyIterator();
+    return new Frame<>(uData, time, successors);
   }
 
   /**
@@ -77,33 +76,145 @@ public class DepthFirstSearch<V extends Vertex, E extends Edge<V>> extends Graph
   @Override
   protected Set<E> edgeSearch(V s, EdgeVisitor<V, E> visitor, Map<V, SearchData<V>> searchData) {
     Set<E> ret = new HashSet<>();
-    int time = 0;
-    dfsEdgeVisit(s, searchData, time, visitor, ret);
+    Deque<EdgeFrame<V, E>> stack = new ArrayDeque<>();
+    stack.push(dfsEdgeVisit(s, searchData, 0));
+    while (!stack.isEmpty()) {
+      EdgeFrame<V, E> frame = stack.peek();
+      if (frame.adjacent.hasNext()) {
+        V v = frame.adjacent.next();
+        E e = frame.incident.next();
+        if (!ret.contains(e) && visitor.visit(e)) {
+          ret.add(e);
+          SearchData<V> vData = getSearchData(searchData, v);
+          if (vData.getColor() == VertexColor.White) {
+            frame.data.addSucessors(v);
+            stack.push(dfsEdgeVisit(v, searchData, frame.time));
+          }
+        }
+      } else {
+        stack.pop();
+        finish(frame);
+      }
+    }
     return ret;
   }
 
   /**
-   * Visits a given vertex and triggers the visitation of the adjacent non-visited vertices.
+   * Visits a given vertex and gets the frame that will trigger the visitation of its adjacent
+   * edges.
    */
-  private void dfsEdgeVisit(V u, Map<V, SearchData<V>> searchData, int time,
-      EdgeVisitor<V, E> visitor, Set<E> edgesVisited) {
+  private EdgeFrame<V, E> dfsEdgeVisit(V u, Map<V, SearchData<V>> searchData, int time) {
     time += 1;
-    SearchDataImpl<V> uData = (SearchDataImpl<V>) searchData.get(u);
+    SearchDataImpl<V> uData = getSearchData(searchData, u);
     uData.setDepth(time);
     uData.setColor(VertexColor.Gray);
-    for (V v : graph.getAdjacentVertices(u)) {
-      E e = graph.getEdge(u, v);
-      if (!edgesVisited.contains(e) && visitor.visit(e)) {
-        edgesVisited.add(e);
-        SearchData<V> vData = searchData.get(v);
-        if (vData.getColor() == VertexColor.White) {
-          uData.addSucessors(v);
-          dfsEdgeVisit(v, searchData, time, visitor, edgesVisited);
+    List<V> adjacent = new ArrayList<>();
+    List<E> incident = new ArrayList<>();
+    graph.forEachIncident(u, (v, e) -> {
+      adjacent.add(v);
+      incident.add(e);
+    });
+    return new EdgeFrame<>(uData, time, adjacent.iterator(), incident.iterator());
+  }
+
+  /**
+   * Finishes the vertex of a given frame, once all of its adjacent vertices have been visited.
+   */
+  private void finish(Frame<V> frame) {
+    frame.data.setColor(VertexColor.Black);
+    frame.data.setTime(frame.time + 1);
+  }
+
+  /**
+   * Lazy DFS: every call to next advances the explicit stack until the next vertex is visited.
+   */
+  private class VertexIterator<T> implements Iterator<SearchData<V>> {
+
+    private final Deque<Frame<V>> stack = new ArrayDeque<>();
+    private final Visitor<T> visitor;
+    private final Map<V, SearchData<V>> searchData;
+    private SearchData<V> pending;
+
+    VertexIterator(V s, Visitor<T> visitor, Map<V, SearchData<V>> searchData) {
+      this.visitor = visitor;
+      this.searchData = searchData;
+      Frame<V> frame = dfsVisit(s, searchData, 0, visitor);
+      stack.push(frame);
+      pending = frame.data;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (pending == null) {
+        pending = advance();
+      }
+      return pending != null;
+    }
+
+    @Override
+    public SearchData<V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      SearchData<V> ret = pending;
+      pending = null;
+      return ret;
+    }
+
+    /**
+     * Advances the search until a vertex is visited.
+     *
+     * @return The search data of the visited vertex or null if the search is over.
+     */
+    private SearchData<V> advance() {
+      while (!stack.isEmpty()) {
+        Frame<V> frame = stack.peek();
+        if (frame.adjacent.hasNext()) {
+          V v = frame.adjacent.next();
+          SearchDataImpl<V> vData = getSearchData(searchData, v);
+          if (vData.getColor() == VertexColor.White) {
+            vData.setPredecessor(frame.data.getVertex());
+            Frame<V> next = dfsVisit(v, searchData, frame.time, visitor);
+            stack.push(next);
+            return next.data;
+          }
+        } else {
+          stack.pop();
+          finish(frame);
         }
       }
+      return null;
+    }
+  }
+
+  /**
+   * A vertex being visited in the explicit DFS stack, which replaces the recursion so that the
+   * depth of the search is not limited by the call stack.
+   */
+  private static class Frame<V extends Vertex> {
+
+    final SearchDataImpl<V> data;
+    final int time;
+    final Iterator<V> adjacent;
+
+    Frame(SearchDataImpl<V> data, int time, Iterator<V> adjacent) {
+      this.data = data;
+      this.time = time;
+      this.adjacent = adjacent;
+    }
+  }
+
+  /**
+   * A frame of the edge search, whose adjacent vertices are iterated together with the edges that
+   * connect them to the vertex of the frame.
+   */
+  private static class EdgeFrame<V extends Vertex, E> extends Frame<V> {
+
+    final Iterator<E> incident;
+
+    EdgeFrame(SearchDataImpl<V> data, int time, Iterator<V> adjacent, Iterator<E> incident) {
+      super(data, time, adjacent);
+      this.incident = incident;
     }
-    time += 1;
-    uData.setColor(VertexColor.Black);
-    uData.setTime(time);
   }
 }
@@ -0,0 +1,297 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.mutable.ChangeJournal;
+import org.psgraph.graph.mutable.Graph;
+import org.psgraph.graph.mutable.GraphChange;
+
+/**
+ * Connected components of a mutable graph maintained incrementally as the graph changes, e.g. to
+ * keep track of the islands of a network while its switches are opened and closed. The direction of
+ * the edges is ignored, i.e. the components are the weakly connected components of the graph.
+ *
+ * The components are kept together with a spanning forest of the graph. Adding an edge between two
+ * components merges the smaller one into the larger one and makes the edge part of the forest. The
+ * removal of an edge that is not part of the forest never splits a component, while the removal of
+ * an edge of the forest enumerates the smaller of the two trees left by it, alternating between
+ * both trees, and looks for another edge that reconnects them. Only when there is no such edge the
+ * smaller tree becomes a new component. Thus, the queries take constant time and the cost of each
+ * change is proportional to the smaller part of the component it touches.
+ *
+ * The changes are read from the journal of the graph and applied when the next query is made, so
+ * the graph may be modified freely between queries, but not during them. This class is not thread
+ * safe.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.mutable.ChangeJournal
+ */
+public class DynamicConnectivity<V extends Vertex, E extends Edge<V>> {
+
+  private final Graph<V, E> graph;
+  private final ChangeJournal.Subscription<V, E> changes;
+  private final Map<V, Set<V>> components = new HashMap<>();
+  /**
+   * The vertices connected to each vertex by edges in either direction.
+   */
+  private final Map<V, Set<V>> neighbors = new HashMap<>();
+  private final Map<V, Set<V>> forest = new HashMap<>();
+  private int componentCount;
+
+  public DynamicConnectivity(Graph<V, E> graph) {
+    this.graph = graph;
+    // Subscribes before reading the graph, so no change made meanwhile is missed
+    this.changes = graph.getJournal().subscribe();
+    for (V v : graph.getVertices()) {
+      addVertex(v);
+    }
+    for (V v : graph.getVertices()) {
+      graph.forEachSuccessor(v, w -> link(v, w));
+    }
+  }
+
+  /**
+   * Checks whether two vertices belong to the same component.
+   */
+  public boolean connected(V u, V v) {
+    update();
+    Set<V> component = components.get(u);
+    return component != null && component == components.get(v);
+  }
+
+  /**
+   * Gets the vertices of the component of a given vertex, or an empty set if the vertex does not
+   * belong to the graph. The set is a read only view of the internal state, which is only valid
+   * until the graph changes: the changes are applied by the next query, which may then merge the
+   * set into another one or move part of it to a new set. It must be copied to be kept.
+   */
+  public Set<V> componentOf(V v) {
+    update();
+    Set<V> component = components.get(v);
+    return component == null ? Collections.emptySet() : Collections.unmodifiableSet(component);
+  }
+
+  /**
+   * Gets the number of components of the graph.
+   */
+  public int getComponentCount() {
+    update();
+    return componentCount;
+  }
+
+  /**
+   * Gets the vertices of every component of the graph. As in {@link #componentOf(Vertex)}, the sets
+   * are only valid until the graph changes.
+   */
+  public List<Set<V>> getComponents() {
+    update();
+    List<Set<V>> ret = new ArrayList<>();
+    Set<Set<V>> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Set<V> component : components.values()) {
+      if (seen.add(component)) {
+        ret.add(Collections.unmodifiableSet(component));
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Applies the changes of the graph not applied yet. Each change is checked against the current
+   * state of the graph, which may be ahead of the change, so that applying all of them leaves the
+   * components consistent with the graph.
+   */
+  private void update() {
+    if (!changes.hasChanges()) {
+      return;
+    }
+    for (GraphChange<V, E> change : changes.poll()) {
+      switch (change.getType()) {
+        case VertexAdded:
+          if (graph.getVertices().contains(change.getVertex())) {
+            addVertex(change.getVertex());
+          }
+          break;
+        case VertexRemoved:
+          if (!graph.getVertices().contains(change.getVertex())) {
+            removeVertex(change.getVertex());
+          }
+          break;
+        case EdgeAdded:
+          link(change.getEdge().getSource(), change.getEdge().getTarget());
+          break;
+        default:
+          unlink(change.getEdge().getSource(), change.getEdge().getTarget());
+          break;
+      }
+    }
+  }
+
+  private boolean adjacent(V u, V v) {
+    return graph.getEdge(u, v) != null || graph.getEdge(v, u) != null;
+  }
+
+  private void addVertex(V v) {
+    if (!components.containsKey(v)) {
+      Set<V> component = new HashSet<>();
+      component.add(v);
+      components.put(v, component);
+      componentCount++;
+    }
+  }
+
+  private void removeVertex(V v) {
+    Set<V> component = components.remove(v);
+    if (component != null) {
+      component.remove(v);
+      if (component.isEmpty()) {
+        componentCount--;
+      }
+    }
+    neighbors.remove(v);
+    forest.remove(v);
+  }
+
+  private static <V> void addPair(Map<V, Set<V>> map, V u, V v) {
+    map.computeIfAbsent(u, k -> new HashSet<>()).add(v);
+    map.computeIfAbsent(v, k -> new HashSet<>()).add(u);
+  }
+
+  private static <V> boolean removePair(Map<V, Set<V>> map, V u, V v) {
+    Set<V> set = map.get(u);
+    if (set == null || !set.remove(v)) {
+      return false;
+    }
+    set = map.get(v);
+    if (set != null) {
+      set.remove(u);
+    }
+    return true;
+  }
+
+  /**
+   * Connects two vertices, if they are still adjacent in the graph.
+   */
+  private void link(V u, V v) {
+    if (u.equals(v) || !adjacent(u, v)) {
+      return;
+    }
+    addVertex(u);
+    addVertex(v);
+    addPair(neighbors, u, v);
+    Set<V> cu = components.get(u);
+    Set<V> cv = components.get(v);
+    if (cu == cv) {
+      return;
+    }
+    Set<V> smaller = cu.size() < cv.size() ? cu : cv;
+    Set<V> larger = smaller == cu ? cv : cu;
+    for (V w : smaller) {
+      components.put(w, larger);
+    }
+    larger.addAll(smaller);
+    componentCount--;
+    addPair(forest, u, v);
+  }
+
+  /**
+   * Disconnects two vertices, if they are no longer adjacent in the graph, and repairs the forest
+   * when the edge between them was part of it.
+   */
+  private void unlink(V u, V v) {
+    if (u.equals(v) || adjacent(u, v)) {
+      return;
+    }
+    removePair(neighbors, u, v);
+    if (!removePair(forest, u, v)) {
+      return;
+    }
+    Set<V> side = smallerTree(u, v);
+    for (V x : side) {
+      for (V y : neighbors.getOrDefault(x, Collections.emptySet())) {
+        if (!side.contains(y)) {
+          addPair(forest, x, y);
+          return;
+        }
+      }
+    }
+    Set<V> component = components.get(u);
+    component.removeAll(side);
+    Set<V> split = new HashSet<>(side);
+    for (V w : split) {
+      components.put(w, split);
+    }
+    componentCount++;
+  }
+
+  /**
+   * Enumerates the trees of the forest that contain two given vertices, alternating between them,
+   * until one of them is exhausted.
+   *
+   * @return The vertices of the smaller tree.
+   */
+  private Set<V> smallerTree(V u, V v) {
+    Tree a = new Tree(u);
+    Tree b = new Tree(v);
+    while (true) {
+      if (!a.step()) {
+        return a.visited;
+      }
+      if (!b.step()) {
+        return b.visited;
+      }
+    }
+  }
+
+  /**
+   * Breadth first enumeration of a tree of the forest.
+   */
+  private final class Tree {
+
+    private final Set<V> visited = new HashSet<>();
+    private final Deque<V> queue = new ArrayDeque<>();
+
+    Tree(V root) {
+      visited.add(root);
+      queue.add(root);
+    }
+
+    /**
+     * Visits the next vertex of the tree.
+     *
+     * @return False if the tree is exhausted.
+     */
+    boolean step() {
+      V x = queue.poll();
+      if (x == null) {
+        return false;
+      }
+      for (V y : forest.getOrDefault(x, Collections.emptySet())) {
+        if (visited.add(y)) {
+          queue.add(y);
+        }
+      }
+      return true;
+    }
+  }
+}
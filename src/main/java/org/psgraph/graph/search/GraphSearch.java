@@ -12,7 +12,9 @@
 package org.psgraph.graph.search;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.Stream;
 import org.psgraph.graph.Edge;
 import org.psgraph.graph.Vertex;
 import org.psgraph.graph.search.visitor.EdgeVisitor;
@@ -98,4 +100,49 @@ public interface GraphSearch<V extends Vertex, E extends Edge<V>> {
    * @return A map with the search data containing all visited vertices.
    */
   Map<V, SearchData<V>> search(V s, SearchDataVisitor<V> visitor);
+
+  /**
+   * Perform the graph search starting in the informed vertex lazily: every call to the iterator's
+   * next method advances the search only until the next vertex is visited. Thus, the search may be
+   * abandoned at any point without visiting the remaining vertices.
+   *
+   * @param s Start vertex for the search.
+   * @return An iterator over the search data of the vertices in the order they are visited. The
+   * search data of a vertex is returned as soon as it is visited, so the data set when the vertex
+   * is finished (e.g. its color and time) may not be final yet.
+   */
+  Iterator<SearchData<V>> iterator(V s);
+
+  /**
+   * Perform the graph search starting in the informed vertex lazily (see
+   * {@link #iterator(Vertex)}).
+   *
+   * @param s Start vertex for the search.
+   * @param visitor The visitor used to control the search. In case it returns false, the
+   * topological search will stop at that point.
+   * @return An iterator over the search data of the vertices in the order they are visited.
+   */
+  Iterator<SearchData<V>> iterator(V s, VertexVisitor<V> visitor);
+
+  /**
+   * Perform the graph search starting in the informed vertex lazily (see
+   * {@link #iterator(Vertex)}). Short-circuiting operations, such as findFirst, stop the search as
+   * soon as they are satisfied.
+   *
+   * @param s Start vertex for the search.
+   * @return A sequential stream of the search data of the vertices in the order they are visited.
+   */
+  Stream<SearchData<V>> stream(V s);
+
+  /**
+   * Perform the graph search starting in the informed vertex lazily (see
+   * {@link #iterator(Vertex)}). Short-circuiting operations, such as findFirst, stop the search as
+   * soon as they are satisfied.
+   *
+   * @param s Start vertex for the search.
+   * @param visitor The visitor used to control the search. In case it returns false, the
+   * topological search will stop at that point.
+   * @return A sequential stream of the search data of the vertices in the order they are visited.
+   */
+  Stream<SearchData<V>> stream(V s, VertexVisitor<V> visitor);
 }
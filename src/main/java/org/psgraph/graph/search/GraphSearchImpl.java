@@ -14,8 +14,10 @@ package org.psgraph.graph.search;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.psgraph.graph.Edge;
 import org.psgraph.graph.Graph;
 import org.psgraph.graph.Vertex;
@@ -63,7 +65,7 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
     Map<V, SearchData<V>> searchData = initSearchData();
     for (V v : graph.getVertices()) {
       if (searchData.get(v).getColor() == VertexColor.White) {
-        ret.addAll(edgeSearch(v, u -> true, searchData));
+        ret.addAll(edgeSearch(v, visitor, searchData));
       }
     }
     return ret;
@@ -74,7 +76,7 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
    */
   @Override
   public Map<V, SearchData<V>> search(V s) {
-    return search(s, (Visitor<V> v) -> true);
+    return search(s, (VertexVisitor<V>) v -> true);
   }
 
   /**
@@ -90,8 +92,7 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
    */
   @Override
   public Set<E> search(V s, EdgeVisitor<V, E> visitor) {
-    Map<V, SearchData<V>> searchData = initSearchData();
-    return edgeSearch(s, visitor, searchData);
+    return edgeSearch(s, visitor, new HashMap<>());
   }
 
   /**
@@ -110,6 +111,38 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
     return search(s, (Visitor<SearchData<V>>) visitor);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s) {
+    return iterator(s, v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s, VertexVisitor<V> visitor) {
+    return vertexIterator(s, visitor, new HashMap<>());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s) {
+    return stream(s, v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s, VertexVisitor<V> visitor) {
+    return (new SearchUtil()).stream(iterator(s, visitor));
+  }
+
   /**
    * Search for all vertices in the graph using a VertexVisitor or a SearchDataVisitor.
    */
@@ -124,10 +157,12 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
   }
 
   /**
-   * Search starting in a vertex s using a VertexVisitor or a SearchDataVisitor.
+   * Search starting in a vertex s using a VertexVisitor or a SearchDataVisitor. The search data is
+   * created only for the vertices reached, so the cost is proportional to the visited region
+   * instead of the size of the graph.
    */
   private <T> Map<V, SearchData<V>> search(V s, Visitor<T> visitor) {
-    Map<V, SearchData<V>> searchData = initSearchData();
+    Map<V, SearchData<V>> searchData = new HashMap<>();
     vertexSearch(s, visitor, searchData);
     return (new SearchUtil()).filterVisitedVertices(searchData);
   }
@@ -144,14 +179,60 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
   }
 
   /**
-   * Executes the search algorithm for a given start vertex <b>s</b>.
+   * Gets the search data of a given vertex, creating it (white colored) in case it has not been
+   * reached yet by a single source search.
+   */
+  protected SearchDataImpl<V> getSearchData(Map<V, SearchData<V>> searchData, V v) {
+    SearchData<V> ret = searchData.get(v);
+    if (ret == null) {
+      ret = new SearchDataImpl<>(v);
+      searchData.put(v, ret);
+    }
+    return (SearchDataImpl<V>) ret;
+  }
+
+  /**
+   * Calls a VertexVisitor or a SearchDataVisitor for a given vertex.
+   *
+   * @return False if the search must stop in this vertex.
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> boolean visit(Visitor<T> visitor, SearchDataImpl<V> data) {
+    if (visitor instanceof SearchDataVisitor) {
+      return ((SearchDataVisitor<V>) visitor).visit(data);
+    }
+    return ((Visitor<V>) visitor).visit(data.getVertex());
+  }
+
+  /**
+   * Executes the search algorithm for a given start vertex <b>s</b>, consuming the whole
+   * {@link #vertexIterator}.
+   *
+   * @param s Start vertex.
+   * @param visitor The vertex visitor used to control the search. In case the visitor returns false
+   * for a given vertex, the topological search will stop at that point.
+   * @param searchData The map that will be used to control visited vertices and its data. Vertices
+   * that are not in the map must be handled as white ones (see {@link #getSearchData}).
+   */
+  protected <T> void vertexSearch(V s, Visitor<T> visitor, Map<V, SearchData<V>> searchData) {
+    Iterator<SearchData<V>> iterator = vertexIterator(s, visitor, searchData);
+    while (iterator.hasNext()) {
+      iterator.next();
+    }
+  }
+
+  /**
+   * Creates an iterator that executes the search algorithm for a given start vertex <b>s</b> one
+   * visit at a time.
    *
    * @param s Start vertex.
    * @param visitor The vertex visitor used to control the search. In case the visitor returns false
    * for a given vertex, the topological search will stop at that point.
-   * @param searchData The map that will be used to control visited vertices and its data.
+   * @param searchData The map that will be used to control visited vertices and its data. Vertices
+   * that are not in the map must be handled as white ones (see {@link #getSearchData}).
+   * @return An iterator over the search data of the vertices in the order they are visited.
    */
-  protected abstract <T> void vertexSearch(V s, Visitor<T> visitor,
+  protected abstract <T> Iterator<SearchData<V>> vertexIterator(V s, Visitor<T> visitor,
       Map<V, SearchData<V>> searchData);
 
   /**
@@ -160,7 +241,8 @@ public abstract class GraphSearchImpl<V extends Vertex, E extends Edge<V>> imple
    * @param s Start vertex.
    * @param visitor The edge visitor used to control the search. In case the visitor returns false
    * for a given edge, the topological search will stop at that point.
-   * @param searchData The map that will be used to control visited vertices and its data.
+   * @param searchData The map that will be used to control visited vertices and its data. Vertices
+   * that are not in the map must be handled as white ones (see {@link #getSearchData}).
    * @return A collection with the edges visited during the search.
    */
   protected abstract Set<E> edgeSearch(V s, EdgeVisitor<V, E> visitor,
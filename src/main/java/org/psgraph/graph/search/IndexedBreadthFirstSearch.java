@@ -0,0 +1,158 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.search.visitor.EdgeVisitor;
+import org.psgraph.graph.search.visitor.Visitor;
+
+/**
+ * Breadth First Search (BFS) algorithm with the search data stored in primitive arrays.
+ * <b>Cost: Theta(V+E)</b>
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.BreadthFirstSearch
+ */
+public class IndexedBreadthFirstSearch<V extends Vertex, E extends Edge<V>> extends
+    IndexedGraphSearchImpl<V, E> {
+
+  public IndexedBreadthFirstSearch(Graph<V, E> graph) {
+    super(graph);
+  }
+
+  public IndexedBreadthFirstSearch(Graph<V, E> graph, Supplier<SearchWorkspace> workspaces) {
+    super(graph, workspaces);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> PrimitiveIterator.OfInt vertexIterator(int s, Visitor<T> visitor,
+      IndexedSearchState<V, E> state) {
+    return new VertexIterator<>(s, visitor, state);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void edgeSearch(int s, EdgeVisitor<V, E> visitor, IndexedSearchState<V, E> state,
+      Set<E> edgesVisited) {
+    EdgeExpansion expansion = new EdgeExpansion(visitor, state, edgesVisited);
+    int[] queue = expansion.queue;
+    int head = 0;
+    state.discover(s, -1, 0);
+    queue[expansion.tail++] = s;
+    while (head < expansion.tail) {
+      expansion.u = queue[head++];
+      graph.forEachIncident(state.index.getVertex(expansion.u), expansion);
+      state.finish(expansion.u);
+    }
+  }
+
+  /**
+   * Visits the incident edges of the vertex u of the edge search, enqueuing the non-visited
+   * vertices reached through them.
+   */
+  private final class EdgeExpansion implements BiConsumer<V, E> {
+
+    private final EdgeVisitor<V, E> visitor;
+    private final IndexedSearchState<V, E> state;
+    private final Set<E> edgesVisited;
+    private final int[] queue;
+    private int tail = 0;
+    private int u;
+
+    EdgeExpansion(EdgeVisitor<V, E> visitor, IndexedSearchState<V, E> state,
+        Set<E> edgesVisited) {
+      this.visitor = visitor;
+      this.state = state;
+      this.edgesVisited = edgesVisited;
+      this.queue = state.queue();
+    }
+
+    @Override
+    public void accept(V v, E e) {
+      if (visitor.visit(e)) {
+        edgesVisited.add(e);
+        int w = state.index.getId(v);
+        if (state.isWhite(w)) {
+          state.discover(w, u, state.depth(u) + 1);
+          queue[tail++] = w;
+        }
+      }
+    }
+  }
+
+  /**
+   * Lazy BFS: every call to nextInt polls one vertex from the queue, discovers its successors and
+   * visits it. The iterator itself discovers the successors, so no object is allocated per vertex.
+   */
+  private final class VertexIterator<T> implements PrimitiveIterator.OfInt, IntConsumer {
+
+    private final Visitor<T> visitor;
+    private final IndexedSearchState<V, E> state;
+    private final int[] queue;
+    private int head = 0;
+    private int tail = 0;
+    private int u;
+
+    VertexIterator(int s, Visitor<T> visitor, IndexedSearchState<V, E> state) {
+      this.visitor = visitor;
+      this.state = state;
+      this.queue = state.queue();
+      state.discover(s, -1, 0);
+      queue[tail++] = s;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return head < tail;
+    }
+
+    @Override
+    public int nextInt() {
+      if (head == tail) {
+        throw new NoSuchElementException();
+      }
+      u = queue[head++];
+      int discovered = tail;
+      graph.forEachSuccessor(u, this);
+      if (!visit(visitor, u, state)) {
+        // The vertices discovered from u remain gray, but they are not expanded.
+        tail = discovered;
+      }
+      state.finish(u);
+      return u;
+    }
+
+    /**
+     * Discovers a successor w of the vertex being visited.
+     */
+    @Override
+    public void accept(int w) {
+      if (state.isWhite(w)) {
+        state.discover(w, u, state.depth(u) + 1);
+        queue[tail++] = w;
+      }
+    }
+  }
+}
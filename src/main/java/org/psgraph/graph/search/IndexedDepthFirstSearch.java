@@ -0,0 +1,266 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.search.visitor.EdgeVisitor;
+import org.psgraph.graph.search.visitor.Visitor;
+
+/**
+ * Depth First Search (DFS) algorithm with the search data stored in primitive arrays. The recursion
+ * is replaced by an explicit stack, thus the depth of the search is not limited by the call stack.
+ * <b>Cost: Theta(V+E)</b>
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.DepthFirstSearch
+ */
+public class IndexedDepthFirstSearch<V extends Vertex, E extends Edge<V>> extends
+    IndexedGraphSearchImpl<V, E> {
+
+  public IndexedDepthFirstSearch(Graph<V, E> graph) {
+    super(graph);
+  }
+
+  public IndexedDepthFirstSearch(Graph<V, E> graph, Supplier<SearchWorkspace> workspaces) {
+    super(graph, workspaces);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> PrimitiveIterator.OfInt vertexIterator(int s, Visitor<T> visitor,
+      IndexedSearchState<V, E> state) {
+    return new VertexIterator<>(s, visitor, state);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void edgeSearch(int s, EdgeVisitor<V, E> visitor, IndexedSearchState<V, E> state,
+      Set<E> edgesVisited) {
+    Stack stack = new Stack();
+    enterEdges(s, -1, 1, state, stack);
+    while (stack.size > 0) {
+      int u = stack.vertex();
+      int v = stack.next();
+      if (v == -1) {
+        state.finish(u, state.depth(u) + 1);
+        stack.pop();
+        continue;
+      }
+      @SuppressWarnings("unchecked")
+      E e = (E) stack.incident();
+      if (!edgesVisited.contains(e) && visitor.visit(e)) {
+        edgesVisited.add(e);
+        if (state.isWhite(v)) {
+          enterEdges(v, u, state.depth(u) + 1, state, stack);
+        }
+      }
+    }
+  }
+
+  /**
+   * Discovers a given vertex and pushes all of its adjacent vertices together with their edges,
+   * which will be visited.
+   */
+  private void enterEdges(int u, int predecessor, int depth, IndexedSearchState<V, E> state,
+      Stack stack) {
+    VertexIndex<V> index = state.index;
+    state.discover(u, predecessor, depth);
+    stack.push(u);
+    graph.forEachIncident(index.getVertex(u), (v, e) -> stack.add(index.getId(v), e));
+  }
+
+  /**
+   * Lazy DFS: every call to nextInt advances the explicit stack until the next vertex is visited.
+   * The iterator itself pushes the successors, so no object is allocated per vertex.
+   */
+  private final class VertexIterator<T> implements PrimitiveIterator.OfInt, IntConsumer {
+
+    private final Visitor<T> visitor;
+    private final IndexedSearchState<V, E> state;
+    private final Stack stack = new Stack();
+    private int pending;
+
+    VertexIterator(int s, Visitor<T> visitor, IndexedSearchState<V, E> state) {
+      this.visitor = visitor;
+      this.state = state;
+      enterVertex(s, -1, 1);
+      this.pending = s;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (pending == -1) {
+        pending = advance();
+      }
+      return pending != -1;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int ret = pending;
+      pending = -1;
+      return ret;
+    }
+
+    /**
+     * Advances the search until a vertex is visited.
+     *
+     * @return The id of the visited vertex or -1 if the search is over.
+     */
+    private int advance() {
+      while (stack.size > 0) {
+        int u = stack.vertex();
+        int v = stack.next();
+        if (v == -1) {
+          state.finish(u, state.depth(u) + 1);
+          stack.pop();
+        } else if (state.isWhite(v)) {
+          enterVertex(v, u, state.depth(u) + 1);
+          return v;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Discovers a given vertex and pushes the successors that will be visited from it, unless the
+     * visitor stops the search in this vertex.
+     */
+    private void enterVertex(int u, int predecessor, int depth) {
+      state.discover(u, predecessor, depth);
+      stack.push(u);
+      graph.forEachSuccessor(u, this);
+      if (!visit(visitor, u, state)) {
+        stack.clearTop();
+      }
+    }
+
+    /**
+     * Pushes a successor w of the vertex being entered, unless it has already been visited.
+     */
+    @Override
+    public void accept(int w) {
+      if (state.isWhite(w)) {
+        stack.add(w);
+      }
+    }
+  }
+
+  /**
+   * Explicit DFS stack. Each frame stores a vertex, the position of the next adjacent vertex to be
+   * visited and the end of its adjacent vertices, which are stored contiguously in a second array.
+   * The edge search also stores the edge of every adjacent vertex in a third array.
+   */
+  private static final class Stack {
+
+    private int[] frames = new int[3 * 16];
+    private int[] adjacent = new int[16];
+    private Object[] incident;
+    private int size = 0;
+    private int adjacentSize = 0;
+
+    /**
+     * Pushes a frame for a given vertex. Its adjacent vertices must be added right after.
+     */
+    void push(int u) {
+      if (3 * (size + 1) > frames.length) {
+        frames = Arrays.copyOf(frames, frames.length * 2);
+      }
+      frames[3 * size] = u;
+      frames[3 * size + 1] = adjacentSize;
+      frames[3 * size + 2] = adjacentSize;
+      size++;
+    }
+
+    /**
+     * Adds an adjacent vertex to the top frame.
+     */
+    void add(int v) {
+      if (adjacentSize == adjacent.length) {
+        adjacent = Arrays.copyOf(adjacent, adjacent.length * 2);
+      }
+      adjacent[adjacentSize++] = v;
+      frames[3 * size - 1] = adjacentSize;
+    }
+
+    /**
+     * Adds an adjacent vertex to the top frame together with the edge that connects them.
+     */
+    void add(int v, Object e) {
+      add(v);
+      if (incident == null) {
+        incident = new Object[adjacent.length];
+      } else if (incident.length < adjacent.length) {
+        incident = Arrays.copyOf(incident, adjacent.length);
+      }
+      incident[adjacentSize - 1] = e;
+    }
+
+    /**
+     * Gets the edge of the adjacent vertex last returned by {@link #next()}.
+     */
+    Object incident() {
+      return incident[frames[3 * size - 2] - 1];
+    }
+
+    /**
+     * Removes the adjacent vertices of the top frame.
+     */
+    void clearTop() {
+      adjacentSize = frames[3 * size - 2];
+      frames[3 * size - 1] = adjacentSize;
+    }
+
+    /**
+     * Gets the vertex of the top frame.
+     */
+    int vertex() {
+      return frames[3 * size - 3];
+    }
+
+    /**
+     * Gets the next adjacent vertex of the top frame or -1 if all of them have been consumed.
+     */
+    int next() {
+      int pos = frames[3 * size - 2];
+      if (pos == frames[3 * size - 1]) {
+        return -1;
+      }
+      frames[3 * size - 2] = pos + 1;
+      return adjacent[pos];
+    }
+
+    /**
+     * Removes the top frame and its adjacent vertices.
+     */
+    void pop() {
+      size--;
+      adjacentSize = size == 0 ? 0 : frames[3 * size - 1];
+    }
+  }
+}
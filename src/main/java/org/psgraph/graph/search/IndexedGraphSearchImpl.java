@@ -0,0 +1,284 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.search.visitor.EdgeVisitor;
+import org.psgraph.graph.search.visitor.SearchDataVisitor;
+import org.psgraph.graph.search.visitor.VertexVisitor;
+import org.psgraph.graph.search.visitor.Visitor;
+
+/**
+ * Fundamental definitions for search algorithms whose search data is kept in primitive arrays
+ * indexed by the ids of the graph's {@link VertexIndex}. The results are returned as read only map
+ * views over these arrays, so the {@link SearchData} objects are only created when they are read.
+ * The arrays belong to a {@link SearchWorkspace}, which may be reused by many searches to avoid
+ * allocating them for every search.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.GraphSearchImpl
+ */
+public abstract class IndexedGraphSearchImpl<V extends Vertex, E extends Edge<V>> implements
+    GraphSearch<V, E> {
+
+  protected final Graph<V, E> graph;
+  private final Supplier<SearchWorkspace> workspaces;
+
+  /**
+   * Creates a search that allocates a new workspace for every search, so the results are never
+   * invalidated.
+   */
+  public IndexedGraphSearchImpl(Graph<V, E> graph) {
+    this(graph, SearchWorkspace::new);
+  }
+
+  /**
+   * Creates a search that gets the workspace of every search from a given supplier, e.g.
+   * {@code SearchWorkspace::forCurrentThread}. The results of a search are only valid until the
+   * next search that uses the same workspace.
+   */
+  public IndexedGraphSearchImpl(Graph<V, E> graph, Supplier<SearchWorkspace> workspaces) {
+    this.graph = graph;
+    this.workspaces = workspaces;
+  }
+
+  /**
+   * Creates the state of a new search.
+   */
+  protected IndexedSearchState<V, E> newState() {
+    return new IndexedSearchState<>(graph, workspaces.get());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search() {
+    return search((VertexVisitor<V>) v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(VertexVisitor<V> visitor) {
+    return search((Visitor<V>) visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<E> search(EdgeVisitor<V, E> visitor) {
+    Set<E> ret = new HashSet<>();
+    IndexedSearchState<V, E> state = newState();
+    VertexIndex<V> index = state.index;
+    for (int id = 0; id < index.getIdBound(); id++) {
+      if (index.getVertex(id) != null && state.isWhite(id)) {
+        edgeSearch(id, visitor, state, ret);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s) {
+    return search(s, (VertexVisitor<V>) v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s, VertexVisitor<V> visitor) {
+    return search(s, (Visitor<V>) visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<E> search(V s, EdgeVisitor<V, E> visitor) {
+    Set<E> ret = new HashSet<>();
+    IndexedSearchState<V, E> state = newState();
+    int id = state.index.getId(s);
+    if (id != -1) {
+      edgeSearch(id, visitor, state, ret);
+    }
+    return ret;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(SearchDataVisitor<V> visitor) {
+    return search((Visitor<SearchData<V>>) visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<V, SearchData<V>> search(V s, SearchDataVisitor<V> visitor) {
+    return search(s, (Visitor<SearchData<V>>) visitor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s) {
+    return iterator(s, v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<SearchData<V>> iterator(V s, VertexVisitor<V> visitor) {
+    IndexedSearchState<V, E> state = newState();
+    int id = state.index.getId(s);
+    if (id == -1) {
+      return Collections.emptyIterator();
+    }
+    PrimitiveIterator.OfInt ids = vertexIterator(id, visitor, state);
+    return new Iterator<SearchData<V>>() {
+      @Override
+      public boolean hasNext() {
+        state.checkValid();
+        return ids.hasNext();
+      }
+
+      @Override
+      public SearchData<V> next() {
+        state.checkValid();
+        return state.dataOf(ids.nextInt());
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s) {
+    return stream(s, v -> true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Stream<SearchData<V>> stream(V s, VertexVisitor<V> visitor) {
+    return (new SearchUtil()).stream(iterator(s, visitor));
+  }
+
+  /**
+   * Search for all vertices in the graph using a VertexVisitor or a SearchDataVisitor.
+   */
+  private <T> Map<V, SearchData<V>> search(Visitor<T> visitor) {
+    IndexedSearchState<V, E> state = newState();
+    VertexIndex<V> index = state.index;
+    for (int id = 0; id < index.getIdBound(); id++) {
+      if (index.getVertex(id) != null && state.isWhite(id)) {
+        vertexSearch(id, visitor, state);
+      }
+    }
+    return state.asMap(false);
+  }
+
+  /**
+   * Search starting in a vertex s using a VertexVisitor or a SearchDataVisitor.
+   */
+  private <T> Map<V, SearchData<V>> search(V s, Visitor<T> visitor) {
+    IndexedSearchState<V, E> state = newState();
+    int id = state.index.getId(s);
+    if (id != -1) {
+      vertexSearch(id, visitor, state);
+    }
+    return state.asMap(true);
+  }
+
+  /**
+   * Calls a VertexVisitor or a SearchDataVisitor for a given vertex id.
+   *
+   * @return False if the search must stop in this vertex.
+   * @throws IllegalStateException If the visitor started another search with the same workspace.
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> boolean visit(Visitor<T> visitor, int u, IndexedSearchState<V, E> state) {
+    boolean ret;
+    if (visitor instanceof SearchDataVisitor) {
+      ret = ((SearchDataVisitor<V>) visitor).visit(state.dataOf(u));
+    } else {
+      ret = ((Visitor<V>) visitor).visit(state.index.getVertex(u));
+    }
+    state.checkValid();
+    return ret;
+  }
+
+  /**
+   * Executes the search algorithm for a given start vertex id <b>s</b>, consuming the whole
+   * {@link #vertexIterator}.
+   *
+   * @param s Start vertex id.
+   * @param visitor The vertex visitor used to control the search. In case the visitor returns false
+   * for a given vertex, the topological search will stop at that point.
+   * @param state The arrays that will be used to control visited vertices and its data.
+   */
+  protected <T> void vertexSearch(int s, Visitor<T> visitor, IndexedSearchState<V, E> state) {
+    PrimitiveIterator.OfInt iterator = vertexIterator(s, visitor, state);
+    while (iterator.hasNext()) {
+      iterator.nextInt();
+    }
+  }
+
+  /**
+   * Creates an iterator that executes the search algorithm for a given start vertex id <b>s</b>
+   * one visit at a time.
+   *
+   * @param s Start vertex id.
+   * @param visitor The vertex visitor used to control the search. In case the visitor returns false
+   * for a given vertex, the topological search will stop at that point.
+   * @param state The arrays that will be used to control visited vertices and its data.
+   * @return An iterator over the ids of the vertices in the order they are visited.
+   */
+  protected abstract <T> PrimitiveIterator.OfInt vertexIterator(int s, Visitor<T> visitor,
+      IndexedSearchState<V, E> state);
+
+  /**
+   * Executes the search algorithm for a given start vertex id <b>s</b>.
+   *
+   * @param s Start vertex id.
+   * @param visitor The edge visitor used to control the search. In case the visitor returns false
+   * for a given edge, the topological search will stop at that point.
+   * @param state The arrays that will be used to control visited vertices and its data.
+   * @param edgesVisited The set where the visited edges are collected.
+   */
+  protected abstract void edgeSearch(int s, EdgeVisitor<V, E> visitor,
+      IndexedSearchState<V, E> state, Set<E> edgesVisited);
+}
@@ -0,0 +1,370 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+
+/**
+ * Search data of all the vertices of a graph stored in the primitive arrays of a
+ * {@link SearchWorkspace}, indexed by the vertex ids of the graph's {@link VertexIndex}. Instead of
+ * one object per vertex, a search only writes to the arrays of its workspace, and the
+ * {@link SearchData} of a vertex is only materialized when it is read through the map returned by
+ * {@link #asMap(boolean)}.
+ *
+ * The entries of the workspace that were not written by the search of this state are read as
+ * non-visited (white) vertices.
+ *
+ * @author Wilson de Carvalho
+ */
+class IndexedSearchState<V extends Vertex, E extends Edge<V>> {
+
+  static final byte WHITE = 0;
+  static final byte GRAY = 1;
+  static final byte BLACK = 2;
+
+  final Graph<V, E> graph;
+  final VertexIndex<V> index;
+  private final SearchWorkspace workspace;
+  private final int epoch;
+  private final long generation;
+  private final int[] stamp;
+  private final byte[] color;
+  private final int[] depth;
+  private final int[] time;
+  private final int[] predecessor;
+  /**
+   * Ids of the vertices colored black, in the order they were finished.
+   */
+  private final int[] order;
+  private int finished;
+
+  IndexedSearchState(Graph<V, E> graph, SearchWorkspace workspace) {
+    this.graph = graph;
+    this.index = graph.getVertexIndex();
+    this.workspace = workspace;
+    this.epoch = workspace.begin(index.getIdBound());
+    this.generation = workspace.generation;
+    this.stamp = workspace.stamp;
+    this.color = workspace.color;
+    this.depth = workspace.depth;
+    this.time = workspace.time;
+    this.predecessor = workspace.predecessor;
+    this.order = workspace.order;
+  }
+
+  /**
+   * Checks that the workspace has not been used by a newer search.
+   *
+   * @throws IllegalStateException If the data of this state has been invalidated.
+   */
+  void checkValid() {
+    if (workspace.epoch != epoch || workspace.generation != generation) {
+      throw new IllegalStateException(
+          "The search data was invalidated by a newer search using the same workspace.");
+    }
+  }
+
+  /**
+   * Gets the exclusive upper bound of the vertex ids of the searched graph.
+   */
+  int bound() {
+    return index.getIdBound();
+  }
+
+  boolean isWhite(int id) {
+    return stamp[id] != epoch || color[id] == WHITE;
+  }
+
+  byte color(int id) {
+    return stamp[id] == epoch ? color[id] : WHITE;
+  }
+
+  int depth(int id) {
+    return stamp[id] == epoch ? depth[id] : 0;
+  }
+
+  int time(int id) {
+    return stamp[id] == epoch ? time[id] : 0;
+  }
+
+  int predecessor(int id) {
+    return stamp[id] == epoch ? predecessor[id] : -1;
+  }
+
+  /**
+   * Colors a given white vertex gray.
+   *
+   * @param id Id of the vertex.
+   * @param predecessor Id of the vertex from which it was discovered or -1 for a start vertex.
+   * @param depth Depth of the vertex.
+   */
+  void discover(int id, int predecessor, int depth) {
+    this.stamp[id] = epoch;
+    this.color[id] = GRAY;
+    this.depth[id] = depth;
+    this.time[id] = 0;
+    this.predecessor[id] = predecessor;
+  }
+
+  /**
+   * Gets an auxiliary array, with one position per vertex id, that the search algorithms use as
+   * queue or stack.
+   */
+  int[] queue() {
+    return workspace.queue;
+  }
+
+  /**
+   * Gets a bitmap, with one bit per vertex id, that the parallel algorithms use to claim vertices
+   * atomically.
+   */
+  AtomicLongArray claims() {
+    return workspace.claims();
+  }
+
+  /**
+   * Gets an auxiliary bitmap, with one bit per vertex id.
+   */
+  long[] marks() {
+    return workspace.marks();
+  }
+
+  /**
+   * Colors a given vertex black and appends it to the finished vertices.
+   */
+  void finish(int u) {
+    color[u] = BLACK;
+    order[finished++] = u;
+  }
+
+  /**
+   * Colors a given vertex black, sets its finishing time and appends it to the finished vertices.
+   */
+  void finish(int u, int time) {
+    this.time[u] = time;
+    finish(u);
+  }
+
+  /**
+   * Gets the search data of a given vertex id.
+   */
+  SearchData<V> dataOf(int id) {
+    return new IndexedSearchData(id);
+  }
+
+  /**
+   * Gets a read only map view of this state.
+   *
+   * @param visitedOnly If true, only the vertices colored black are included in the map. Otherwise,
+   * all the vertices of the graph are included.
+   */
+  Map<V, SearchData<V>> asMap(boolean visitedOnly) {
+    return new AbstractMap<V, SearchData<V>>() {
+
+      @Override
+      public Set<Entry<V, SearchData<V>>> entrySet() {
+        return new AbstractSet<Entry<V, SearchData<V>>>() {
+          @Override
+          public Iterator<Entry<V, SearchData<V>>> iterator() {
+            checkValid();
+            return visitedOnly ? new FinishedIterator() : new IdIterator();
+          }
+
+          @Override
+          public int size() {
+            return visitedOnly ? finished : index.size();
+          }
+        };
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+        return idOf(key) != -1;
+      }
+
+      @Override
+      public SearchData<V> get(Object key) {
+        int id = idOf(key);
+        return id == -1 ? null : new IndexedSearchData(id);
+      }
+
+      @Override
+      public int size() {
+        return visitedOnly ? finished : index.size();
+      }
+
+      @SuppressWarnings("unchecked")
+      private int idOf(Object key) {
+        checkValid();
+        if (!(key instanceof Vertex)) {
+          return -1;
+        }
+        int id = index.getId((V) key);
+        return id == -1 || id >= stamp.length || (visitedOnly && color(id) != BLACK) ? -1 : id;
+      }
+    };
+  }
+
+  /**
+   * Iterates over the finished vertices in the order they were finished.
+   */
+  private class FinishedIterator implements Iterator<Map.Entry<V, SearchData<V>>> {
+
+    private int pos = 0;
+
+    @Override
+    public boolean hasNext() {
+      return pos < finished;
+    }
+
+    @Override
+    public Map.Entry<V, SearchData<V>> next() {
+      if (pos >= finished) {
+        throw new NoSuchElementException();
+      }
+      checkValid();
+      return entry(order[pos++]);
+    }
+  }
+
+  /**
+   * Iterates over all the vertices of the graph in the order of their ids.
+   */
+  private class IdIterator implements Iterator<Map.Entry<V, SearchData<V>>> {
+
+    private int id = advance(0);
+
+    private int advance(int from) {
+      while (from < index.getIdBound() && index.getVertex(from) == null) {
+        from++;
+      }
+      return from;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return id < index.getIdBound();
+    }
+
+    @Override
+    public Map.Entry<V, SearchData<V>> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      checkValid();
+      Map.Entry<V, SearchData<V>> ret = entry(id);
+      id = advance(id + 1);
+      return ret;
+    }
+  }
+
+  /**
+   * Map entry of a given vertex id.
+   */
+  private Map.Entry<V, SearchData<V>> entry(int id) {
+    return new SimpleImmutableEntry<>(index.getVertex(id), new IndexedSearchData(id));
+  }
+
+  /**
+   * Search data of a single vertex read from the arrays.
+   */
+  private class IndexedSearchData implements SearchData<V> {
+
+    private final int id;
+
+    IndexedSearchData(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public V getVertex() {
+      return index.getVertex(id);
+    }
+
+    @Override
+    public VertexColor getColor() {
+      checkValid();
+      switch (color(id)) {
+        case BLACK:
+          return VertexColor.Black;
+        case GRAY:
+          return VertexColor.Gray;
+        default:
+          return VertexColor.White;
+      }
+    }
+
+    @Override
+    public int getTime() {
+      checkValid();
+      return time(id);
+    }
+
+    @Override
+    public int getDepth() {
+      checkValid();
+      return depth(id);
+    }
+
+    @Override
+    public V getPredecessor() {
+      checkValid();
+      int p = predecessor(id);
+      return p == -1 ? null : index.getVertex(p);
+    }
+
+    /**
+     * The successors are the adjacent vertices reached from this vertex, i.e. those whose
+     * predecessor is this vertex.
+     */
+    @Override
+    public Set<V> getSucessors() {
+      checkValid();
+      Set<V> ret = new LinkedHashSet<>();
+      for (V v : graph.getAdjacentVertices(getVertex())) {
+        int vid = index.getId(v);
+        if (predecessor(vid) == id && !isWhite(vid)) {
+          ret.add(v);
+        }
+      }
+      return ret;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof IndexedSearchState.IndexedSearchData
+          && ((IndexedSearchState<?, ?>.IndexedSearchData) o).state() == IndexedSearchState.this
+          && ((IndexedSearchState<?, ?>.IndexedSearchData) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id;
+    }
+
+    private IndexedSearchState<V, E> state() {
+      return IndexedSearchState.this;
+    }
+  }
+}
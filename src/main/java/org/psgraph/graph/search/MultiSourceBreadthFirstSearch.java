@@ -0,0 +1,208 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.search.visitor.VertexVisitor;
+
+/**
+ * Multi-source Breadth First Search (MS-BFS) algorithm. It executes the breadth first searches of
+ * many start vertices at once: each vertex keeps one bit per source in a bitmask, so a single scan
+ * of the adjacency of a vertex advances all the searches that reached it at the same level. The
+ * searches of 64 sources share each long word of the bitmasks, and more sources just use more words
+ * per vertex.
+ * <b>Cost: O((V+E) * ceil(S/64)), where S is the number of sources</b>
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.BreadthFirstSearch
+ */
+public class MultiSourceBreadthFirstSearch<V extends Vertex, E extends Edge<V>> {
+
+  /**
+   * Largest number of long words a bitmask array may have, a little below Integer.MAX_VALUE, since
+   * some virtual machines reserve header words in arrays.
+   */
+  private static final int MAXIMUM_WORDS = Integer.MAX_VALUE - 8;
+
+  private final Graph<V, E> graph;
+
+  public MultiSourceBreadthFirstSearch(Graph<V, E> graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Perform the breadth first searches starting in each one of the informed vertices.
+   *
+   * @param sources Start vertices of the searches. The searches are identified by the positions of
+   * their start vertices in this list.
+   * @return The vertices reached by each one of the searches.
+   */
+  public MultiSourceSearchResult<V> search(List<V> sources) {
+    return search(sources, v -> true);
+  }
+
+  /**
+   * Perform the breadth first searches starting in each one of the informed vertices.
+   *
+   * @param sources Start vertices of the searches. The searches are identified by the positions of
+   * their start vertices in this list.
+   * @param visitor The visitor used to control the searches. It is called only once per vertex,
+   * when the vertex is reached for the first time by any of the searches. In case it returns false,
+   * none of the searches will continue from that vertex, although the vertex itself is reached by
+   * all the searches that arrive at it.
+   * @return The vertices reached by each one of the searches.
+   * @throws IllegalArgumentException If the bitmasks of so many sources over the vertices of the
+   * graph do not fit in an array.
+   */
+  public MultiSourceSearchResult<V> search(List<V> sources, VertexVisitor<V> visitor) {
+    VertexIndex<V> index = graph.getVertexIndex();
+    int bound = index.getIdBound();
+    int bitmaskWords = Math.max(1, (sources.size() + 63) >>> 6);
+    // Once the size fits in an int, so does every position of the bitmasks computed below
+    if ((long) bound * bitmaskWords > MAXIMUM_WORDS) {
+      throw new IllegalArgumentException("The bitmasks of " + sources.size()
+          + " sources over a vertex id bound of " + bound + " do not fit in an array.");
+    }
+    Levels levels = new Levels(bound, bitmaskWords);
+    int words = levels.words;
+    int[] depth = new int[bound];
+    Arrays.fill(depth, -1);
+    boolean[] blocked = new boolean[bound];
+
+    int[] frontier = new int[bound];
+    int frontierSize = 0;
+    for (int i = 0; i < sources.size(); i++) {
+      int s = index.getId(sources.get(i));
+      if (s == -1) {
+        continue;
+      }
+      long bit = 1L << i;
+      levels.seen[s * words + (i >>> 6)] |= bit;
+      levels.visit[s * words + (i >>> 6)] |= bit;
+      if (!levels.queued[s]) {
+        levels.queued[s] = true;
+        frontier[frontierSize++] = s;
+      }
+    }
+    int level = 0;
+    while (frontierSize > 0) {
+      // Visits the vertices reached for the first time in this level.
+      for (int f = 0; f < frontierSize; f++) {
+        int u = frontier[f];
+        levels.queued[u] = false;
+        if (depth[u] == -1) {
+          depth[u] = level;
+          blocked[u] = !visitor.visit(index.getVertex(u));
+        }
+      }
+      // Every vertex scans its successors once, propagating the bits of all the searches.
+      levels.nextSize = 0;
+      for (int f = 0; f < frontierSize; f++) {
+        int u = frontier[f];
+        if (!blocked[u]) {
+          levels.uBase = u * words;
+          graph.forEachSuccessor(u, levels);
+        }
+      }
+      frontierSize = levels.advance(frontier, frontierSize);
+      int[] swap = frontier;
+      frontier = levels.next;
+      levels.next = swap;
+      level++;
+    }
+    return new MultiSourceSearchResult<>(index, new ArrayList<>(sources), words, levels.seen,
+        depth);
+  }
+
+  /**
+   * Bitmasks of the searches, with <i>words</i> long words per vertex, and the vertices reached in
+   * the next level. It propagates the bits of the vertex being expanded to each one of its
+   * successors, so no object is allocated per vertex.
+   */
+  private static final class Levels implements IntConsumer {
+
+    final int words;
+    /**
+     * Searches that have reached each vertex.
+     */
+    final long[] seen;
+    /**
+     * Searches that reached each vertex in the current level.
+     */
+    final long[] visit;
+    /**
+     * Searches that reach each vertex in the next level.
+     */
+    final long[] visitNext;
+    final boolean[] queued;
+    int[] next;
+    int nextSize;
+    /**
+     * Position of the bitmasks of the vertex being expanded.
+     */
+    int uBase;
+
+    Levels(int bound, int words) {
+      this.words = words;
+      this.seen = new long[bound * words];
+      this.visit = new long[bound * words];
+      this.visitNext = new long[bound * words];
+      this.queued = new boolean[bound];
+      this.next = new int[bound];
+    }
+
+    @Override
+    public void accept(int w) {
+      int wBase = w * words;
+      boolean reached = false;
+      for (int k = 0; k < words; k++) {
+        long d = visit[uBase + k] & ~seen[wBase + k];
+        if (d != 0) {
+          visitNext[wBase + k] |= d;
+          reached = true;
+        }
+      }
+      if (reached && !queued[w]) {
+        queued[w] = true;
+        next[nextSize++] = w;
+      }
+    }
+
+    /**
+     * Moves the bits of the next level to the current one, once the frontier has been expanded.
+     *
+     * @return The size of the next level.
+     */
+    int advance(int[] frontier, int frontierSize) {
+      for (int f = 0; f < frontierSize; f++) {
+        int uBase = frontier[f] * words;
+        Arrays.fill(visit, uBase, uBase + words, 0L);
+      }
+      for (int f = 0; f < nextSize; f++) {
+        int vBase = next[f] * words;
+        for (int k = 0; k < words; k++) {
+          seen[vBase + k] |= visitNext[vBase + k];
+          visit[vBase + k] = visitNext[vBase + k];
+          visitNext[vBase + k] = 0;
+        }
+      }
+      return nextSize;
+    }
+  }
+}
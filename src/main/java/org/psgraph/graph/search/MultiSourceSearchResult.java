@@ -0,0 +1,120 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+
+/**
+ * Result of a {@link MultiSourceBreadthFirstSearch}: the bitmasks of the searches that reached each
+ * vertex. It is read through the vertex index of the searched graph, thus it must not be used after
+ * vertices are removed from the graph.
+ *
+ * @author Wilson de Carvalho
+ */
+public class MultiSourceSearchResult<V extends Vertex> {
+
+  private final VertexIndex<V> index;
+  private final List<V> sources;
+  private final int words;
+  /**
+   * Bitmasks of the searches, with <i>words</i> long words per vertex. The search checks that their
+   * size fits in an int, so the positions computed in int do not overflow.
+   */
+  private final long[] seen;
+  private final int[] depth;
+
+  MultiSourceSearchResult(VertexIndex<V> index, List<V> sources, int words, long[] seen,
+      int[] depth) {
+    this.index = index;
+    this.sources = Collections.unmodifiableList(sources);
+    this.words = words;
+    this.seen = seen;
+    this.depth = depth;
+  }
+
+  /**
+   * Gets the start vertices of the searches, in the order they were informed.
+   */
+  public List<V> getSources() {
+    return sources;
+  }
+
+  /**
+   * Checks whether a given vertex was reached by the search of a given source.
+   *
+   * @param source Position of the source in {@link #getSources()}.
+   * @param v The vertex to be checked.
+   */
+  public boolean isReached(int source, V v) {
+    int id = index.getId(v);
+    return id != -1 && id < depth.length && isReached(source, id);
+  }
+
+  private boolean isReached(int source, int id) {
+    return (seen[id * words + (source >>> 6)] & (1L << source)) != 0;
+  }
+
+  /**
+   * Gets the vertices reached by the search of a given source (including the source itself).
+   *
+   * @param source Position of the source in {@link #getSources()}.
+   */
+  public Set<V> getReachedVertices(int source) {
+    if (source < 0 || source >= sources.size()) {
+      throw new IndexOutOfBoundsException("Invalid source: " + source);
+    }
+    Set<V> ret = new LinkedHashSet<>();
+    for (int id = 0; id < depth.length; id++) {
+      if (isReached(source, id)) {
+        ret.add(index.getVertex(id));
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the sources whose searches reached a given vertex.
+   *
+   * @return The sources in the order they were informed or an empty set if the vertex was not
+   * reached by any search.
+   */
+  public Set<V> getSources(V v) {
+    Set<V> ret = new LinkedHashSet<>();
+    int id = index.getId(v);
+    if (id == -1 || id >= depth.length) {
+      return ret;
+    }
+    for (int k = 0; k < words; k++) {
+      long bits = seen[id * words + k];
+      while (bits != 0) {
+        ret.add(sources.get((k << 6) + Long.numberOfTrailingZeros(bits)));
+        bits &= bits - 1;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the depth of a given vertex, i.e. its distance to the nearest source.
+   *
+   * @return The depth of the vertex or -1 if it was not reached by any search.
+   */
+  public int getDepth(V v) {
+    int id = index.getId(v);
+    return id == -1 || id >= depth.length ? -1 : depth[id];
+  }
+}
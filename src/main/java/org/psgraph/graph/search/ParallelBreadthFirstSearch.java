@@ -0,0 +1,486 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import org.psgraph.graph.AnalyticalGraph;
+import org.psgraph.graph.Edge;
+import org.psgraph.graph.Graph;
+import org.psgraph.graph.Vertex;
+import org.psgraph.graph.VertexIndex;
+import org.psgraph.graph.search.visitor.EdgeVisitor;
+import org.psgraph.graph.search.visitor.Visitor;
+
+/**
+ * Level synchronous Breadth First Search (BFS) algorithm. The vertices of each level (frontier) are
+ * visited and expanded in parallel by the tasks of a {@link ForkJoinPool}, and the next level only
+ * starts once the current one is complete. When the graph is an {@link AnalyticalGraph} and the
+ * frontier becomes large, the expansion switches from top-down (frontier vertices look for
+ * non-visited adjacent vertices) to bottom-up (non-visited vertices look for a predecessor in the
+ * frontier), which avoids inspecting the same vertex from many frontier vertices.
+ * <b>Cost: Theta(V+E) work, O(D) synchronization steps, where D is the depth of the search</b>
+ *
+ * <b>Visitors' contract</b>: the visitors are invoked concurrently by the pool threads, thus they
+ * must be thread safe. All the vertices of a level are visited before any vertex of the next level
+ * and the visits of a level happen-before the visits of the next one. As in the sequential BFS, a
+ * vertex visitor that returns false stops the search at that vertex, i.e. its adjacent vertices are
+ * not reached through it. Unlike the sequential BFS, the successors of a vertex are only known
+ * after its visit, so a search data visitor sees empty successors. For the same reason, the lazy
+ * {@link #iterator(Vertex)} visits a whole level before returning its first vertex.
+ *
+ * The graph must not be modified during the search.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.BreadthFirstSearch
+ */
+public class ParallelBreadthFirstSearch<V extends Vertex, E extends Edge<V>> extends
+    IndexedGraphSearchImpl<V, E> {
+
+  /**
+   * Number of vertices below which a task is not split.
+   */
+  private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  /**
+   * The bottom-up expansion is used when the frontier has more than 1/BOTTOM_UP_FACTOR of the
+   * vertices of the graph.
+   */
+  private static final int BOTTOM_UP_FACTOR = 20;
+
+  private final ForkJoinPool pool;
+
+  public ParallelBreadthFirstSearch(Graph<V, E> graph) {
+    this(graph, ForkJoinPool.commonPool());
+  }
+
+  public ParallelBreadthFirstSearch(Graph<V, E> graph, ForkJoinPool pool) {
+    super(graph);
+    this.pool = pool;
+  }
+
+  public ParallelBreadthFirstSearch(Graph<V, E> graph, ForkJoinPool pool,
+      Supplier<SearchWorkspace> workspaces) {
+    super(graph, workspaces);
+    this.pool = pool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> PrimitiveIterator.OfInt vertexIterator(int s, Visitor<T> visitor,
+      IndexedSearchState<V, E> state) {
+    return new LevelIterator<>(s, visitor, state);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void edgeSearch(int s, EdgeVisitor<V, E> visitor, IndexedSearchState<V, E> state,
+      Set<E> edgesVisited) {
+    int[] queue = state.queue();
+    claim(state.claims(), s);
+    state.discover(s, -1, 0);
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = s;
+    while (head < tail) {
+      EdgeLevel<E> next = pool.invoke(new EdgeTask<>(this, visitor, state, queue, head, tail));
+      for (int i = head; i < tail; i++) {
+        state.finish(queue[i]);
+      }
+      edgesVisited.addAll(next.edges);
+      head = tail;
+      System.arraycopy(next.vertices, 0, queue, tail, next.vertices.length);
+      tail += next.vertices.length;
+    }
+  }
+
+  /**
+   * Lazy level synchronous BFS: the vertices of a level are visited together and returned one by
+   * one, and the level is only expanded once all of its vertices have been returned.
+   */
+  private final class LevelIterator<T> implements PrimitiveIterator.OfInt {
+
+    private final Visitor<T> visitor;
+    private final IndexedSearchState<V, E> state;
+    private final int[] queue;
+    private final boolean bottomUpAllowed;
+    private final int bottomUpSize;
+    /**
+     * The current level is queue[head..tail-1] and queue[pos] is the next vertex to be returned.
+     */
+    private int head = 0;
+    private int tail = 0;
+    private int pos = 0;
+    /**
+     * Answers of the visitor for the vertices of the current level.
+     */
+    private boolean[] ok;
+
+    LevelIterator(int s, Visitor<T> visitor, IndexedSearchState<V, E> state) {
+      this.visitor = visitor;
+      this.state = state;
+      this.queue = state.queue();
+      this.bottomUpAllowed = graph instanceof AnalyticalGraph;
+      this.bottomUpSize = Math.max(SEQUENTIAL_THRESHOLD, state.index.size() / BOTTOM_UP_FACTOR);
+      claim(state.claims(), s);
+      state.discover(s, -1, 0);
+      queue[tail++] = s;
+      visitLevel();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (pos == tail && head < tail) {
+        expandLevel();
+        if (head < tail) {
+          visitLevel();
+        }
+      }
+      return pos < tail;
+    }
+
+    @Override
+    public int nextInt() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return queue[pos++];
+    }
+
+    /**
+     * Visits the whole current level in parallel.
+     */
+    private void visitLevel() {
+      ok = new boolean[tail - head];
+      pool.invoke(new VisitTask<>(ParallelBreadthFirstSearch.this, visitor, state, queue, head,
+          head, tail, ok));
+      for (int i = head; i < tail; i++) {
+        state.finish(queue[i]);
+      }
+      pos = head;
+    }
+
+    /**
+     * Replaces the current level by the vertices reached from it.
+     */
+    private void expandLevel() {
+      // Keeps only the vertices that must be expanded.
+      int expand = head;
+      for (int i = head; i < tail; i++) {
+        if (ok[i - head]) {
+          queue[expand++] = queue[i];
+        }
+      }
+      int[] next;
+      if (bottomUpAllowed && expand - head > bottomUpSize) {
+        long[] frontier = state.marks();
+        for (int i = head; i < expand; i++) {
+          frontier[queue[i] >>> 6] |= 1L << queue[i];
+        }
+        next = pool.invoke(new BottomUpTask<>(ParallelBreadthFirstSearch.this, state, frontier, 0,
+            state.bound()));
+        for (int i = head; i < expand; i++) {
+          frontier[queue[i] >>> 6] = 0;
+        }
+      } else {
+        next = pool.invoke(new TopDownTask<>(ParallelBreadthFirstSearch.this, state, queue, head,
+            expand));
+      }
+      head = tail;
+      System.arraycopy(next, 0, queue, tail, next.length);
+      tail += next.length;
+    }
+  }
+
+  /**
+   * Atomically claims a given vertex id.
+   *
+   * @return True if the vertex was not claimed before.
+   */
+  private static boolean claim(AtomicLongArray claims, int v) {
+    int word = v >>> 6;
+    long mask = 1L << v;
+    long current;
+    do {
+      current = claims.get(word);
+      if ((current & mask) != 0) {
+        return false;
+      }
+    } while (!claims.compareAndSet(word, current, current | mask));
+    return true;
+  }
+
+  /**
+   * Growable list of vertex ids collected by a single task.
+   */
+  private static final class IntList {
+
+    int[] values = new int[16];
+    int size = 0;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+
+  /**
+   * Concatenates the results of two tasks.
+   */
+  private static int[] concat(int[] left, int[] right) {
+    int[] ret = Arrays.copyOf(left, left.length + right.length);
+    System.arraycopy(right, 0, ret, left.length, right.length);
+    return ret;
+  }
+
+  /**
+   * Visits the vertices queue[from..to-1] and stores the visitor's answers in ok[from-base..].
+   */
+  private static final class VisitTask<V extends Vertex, E extends Edge<V>, T> extends
+      RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ParallelBreadthFirstSearch<V, E> search;
+    private final Visitor<T> visitor;
+    private final IndexedSearchState<V, E> state;
+    private final int[] queue;
+    private final int base;
+    private final int from;
+    private final int to;
+    private final boolean[] ok;
+
+    VisitTask(ParallelBreadthFirstSearch<V, E> search, Visitor<T> visitor,
+        IndexedSearchState<V, E> state, int[] queue, int base, int from, int to, boolean[] ok) {
+      this.search = search;
+      this.visitor = visitor;
+      this.state = state;
+      this.queue = queue;
+      this.base = base;
+      this.from = from;
+      this.to = to;
+      this.ok = ok;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > SEQUENTIAL_THRESHOLD) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new VisitTask<>(search, visitor, state, queue, base, from, middle, ok),
+            new VisitTask<>(search, visitor, state, queue, base, middle, to, ok));
+        return;
+      }
+      for (int i = from; i < to; i++) {
+        ok[i - base] = search.visit(visitor, queue[i], state);
+      }
+    }
+  }
+
+  /**
+   * Expands the vertices queue[from..to-1], claiming their non-visited adjacent vertices.
+   */
+  private static final class TopDownTask<V extends Vertex, E extends Edge<V>> extends
+      RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ParallelBreadthFirstSearch<V, E> search;
+    private final IndexedSearchState<V, E> state;
+    private final int[] queue;
+    private final int from;
+    private final int to;
+
+    TopDownTask(ParallelBreadthFirstSearch<V, E> search, IndexedSearchState<V, E> state,
+        int[] queue, int from, int to) {
+      this.search = search;
+      this.state = state;
+      this.queue = queue;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (to - from > SEQUENTIAL_THRESHOLD) {
+        int middle = (from + to) >>> 1;
+        TopDownTask<V, E> left = new TopDownTask<>(search, state, queue, from, middle);
+        left.fork();
+        int[] right = new TopDownTask<>(search, state, queue, middle, to).compute();
+        return concat(left.join(), right);
+      }
+      AtomicLongArray claims = state.claims();
+      IntList next = new IntList();
+      for (int i = from; i < to; i++) {
+        int u = queue[i];
+        search.graph.forEachSuccessor(u, w -> {
+          if (claim(claims, w)) {
+            state.discover(w, u, state.depth(u) + 1);
+            next.add(w);
+          }
+        });
+      }
+      return next.toArray();
+    }
+  }
+
+  /**
+   * Looks for a predecessor in the frontier for every non-visited vertex with id in [from, to).
+   */
+  private static final class BottomUpTask<V extends Vertex, E extends Edge<V>> extends
+      RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ParallelBreadthFirstSearch<V, E> search;
+    private final IndexedSearchState<V, E> state;
+    private final long[] frontier;
+    private final int from;
+    private final int to;
+
+    BottomUpTask(ParallelBreadthFirstSearch<V, E> search, IndexedSearchState<V, E> state,
+        long[] frontier, int from, int to) {
+      this.search = search;
+      this.state = state;
+      this.frontier = frontier;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (to - from > 8 * SEQUENTIAL_THRESHOLD) {
+        // Splits at word boundaries, so that the tasks never claim vertices of the same word.
+        int middle = ((from + to) >>> 1) & ~63;
+        if (middle > from) {
+          BottomUpTask<V, E> left = new BottomUpTask<>(search, state, frontier, from, middle);
+          left.fork();
+          int[] right = new BottomUpTask<>(search, state, frontier, middle, to).compute();
+          return concat(left.join(), right);
+        }
+      }
+      VertexIndex<V> index = state.index;
+      AtomicLongArray claims = state.claims();
+      AnalyticalGraph<V, E> graph = (AnalyticalGraph<V, E>) search.graph;
+      IntList next = new IntList();
+      for (int w = from; w < to; w++) {
+        if ((claims.get(w >>> 6) & (1L << w)) != 0) {
+          continue;
+        }
+        V vertex = index.getVertex(w);
+        Set<V> predecessors = vertex == null ? null : graph.getPredecessors(vertex);
+        if (predecessors == null) {
+          continue;
+        }
+        for (V p : predecessors) {
+          int u = index.getId(p);
+          if ((frontier[u >>> 6] & (1L << u)) != 0) {
+            claim(claims, w);
+            state.discover(w, u, state.depth(u) + 1);
+            next.add(w);
+            break;
+          }
+        }
+      }
+      return next.toArray();
+    }
+  }
+
+  /**
+   * Vertices and edges reached from a level of the edge search.
+   */
+  private static final class EdgeLevel<E> {
+
+    final int[] vertices;
+    final List<E> edges;
+
+    EdgeLevel(int[] vertices, List<E> edges) {
+      this.vertices = vertices;
+      this.edges = edges;
+    }
+  }
+
+  /**
+   * Visits the edges of the vertices queue[from..to-1], claiming the non-visited vertices reached.
+   */
+  private static final class EdgeTask<V extends Vertex, E extends Edge<V>> extends
+      RecursiveTask<EdgeLevel<E>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ParallelBreadthFirstSearch<V, E> search;
+    private final EdgeVisitor<V, E> visitor;
+    private final IndexedSearchState<V, E> state;
+    private final int[] queue;
+    private final int from;
+    private final int to;
+
+    EdgeTask(ParallelBreadthFirstSearch<V, E> search, EdgeVisitor<V, E> visitor,
+        IndexedSearchState<V, E> state, int[] queue, int from, int to) {
+      this.search = search;
+      this.visitor = visitor;
+      this.state = state;
+      this.queue = queue;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected EdgeLevel<E> compute() {
+      if (to - from > SEQUENTIAL_THRESHOLD) {
+        int middle = (from + to) >>> 1;
+        EdgeTask<V, E> left = new EdgeTask<>(search, visitor, state, queue, from, middle);
+        left.fork();
+        EdgeLevel<E> right = new EdgeTask<>(search, visitor, state, queue, middle, to).compute();
+        EdgeLevel<E> leftLevel = left.join();
+        leftLevel.edges.addAll(right.edges);
+        return new EdgeLevel<>(concat(leftLevel.vertices, right.vertices), leftLevel.edges);
+      }
+      VertexIndex<V> index = state.index;
+      AtomicLongArray claims = state.claims();
+      IntList next = new IntList();
+      List<E> edges = new ArrayList<>();
+      for (int i = from; i < to; i++) {
+        int u = queue[i];
+        search.graph.forEachIncident(index.getVertex(u), (v, e) -> {
+          if (visitor.visit(e)) {
+            edges.add(e);
+            int w = index.getId(v);
+            if (claim(claims, w)) {
+              state.discover(w, u, state.depth(u) + 1);
+              next.add(w);
+            }
+          }
+        });
+      }
+      return new EdgeLevel<>(next.toArray(), edges);
+    }
+  }
+}
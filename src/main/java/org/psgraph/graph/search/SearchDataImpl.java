@@ -11,6 +11,7 @@
 
 package org.psgraph.graph.search;
 
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import org.psgraph.graph.Vertex;
@@ -27,10 +28,24 @@ class SearchDataImpl<V extends Vertex> implements SearchData<V> {
   private int time = 0;
   private int depth = 0;
   private V predecessor = null;
-  private Set<V> sucessors = new LinkedHashSet<>();
+  private final Set<V> sucessors;
 
   public SearchDataImpl(V vertex) {
     this.vertex = vertex;
+    this.sucessors = new LinkedHashSet<>();
+  }
+
+  /**
+   * Creates a read-only copy of the search data of a vertex, which does not depend on the search
+   * that produced it. Its successors may not be modified, since the copy may be shared.
+   */
+  public SearchDataImpl(SearchData<V> data) {
+    this.vertex = data.getVertex();
+    this.color = data.getColor();
+    this.time = data.getTime();
+    this.depth = data.getDepth();
+    this.predecessor = data.getPredecessor();
+    this.sucessors = Collections.unmodifiableSet(new LinkedHashSet<>(data.getSucessors()));
   }
 
   /**
@@ -11,8 +11,13 @@
 
 package org.psgraph.graph.search;
 
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.psgraph.graph.Vertex;
 
 /**
@@ -32,4 +37,12 @@ public class SearchUtil {
             Collectors.toMap(v -> v.getKey(), v -> v.getValue()));
   }
 
+  /**
+   * Creates a sequential stream over a lazy search iterator.
+   */
+  public <V extends Vertex> Stream<SearchData<V>> stream(Iterator<SearchData<V>> iterator) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+        Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
 }
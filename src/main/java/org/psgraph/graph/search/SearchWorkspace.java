@@ -0,0 +1,118 @@
+/**
+ * <pre>
+ *   _ __  ___  __  _ __    _    _ __  _  _
+ *  |  _ \/  / /  ||  __\  / \  |  _ \| || |
+ *  |  __/\  \/  __| \ \  / - \ |  __/| -- |
+ *  |_|   /__/|___||_|\_\|_| |_||_|   |_||_|
+ *
+ *  Power Systems' Graph
+ * </pre>
+ */
+
+package org.psgraph.graph.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reusable storage for the search data of the indexed searches. Instead of clearing its arrays
+ * between searches, a workspace stamps every entry written with the epoch of the search that wrote
+ * it, so entries with older stamps are read as non-visited (white) vertices. Starting a new search
+ * is thus O(1), apart from growing the arrays when a larger graph is searched.
+ *
+ * The search data returned by a search is a view over the workspace and is only valid until the
+ * next search that uses the same workspace. Reading it afterwards throws an
+ * {@link IllegalStateException}. A workspace must not be shared by threads searching concurrently;
+ * {@link #forCurrentThread()} provides one workspace per thread.
+ *
+ * @author Wilson de Carvalho
+ * @see org.psgraph.graph.search.IndexedGraphSearchImpl
+ */
+public final class SearchWorkspace {
+
+  private static final ThreadLocal<SearchWorkspace> CURRENT =
+      ThreadLocal.withInitial(SearchWorkspace::new);
+
+  int epoch;
+  /**
+   * Number of times the epoch wrapped around, so the states of the searches made before a
+   * wraparound are not taken as valid when the epoch reaches their value again.
+   */
+  long generation;
+  int[] stamp = new int[0];
+  byte[] color = new byte[0];
+  int[] depth = new int[0];
+  int[] time = new int[0];
+  int[] predecessor = new int[0];
+  int[] order = new int[0];
+  int[] queue = new int[0];
+  private AtomicLongArray claims = new AtomicLongArray(0);
+  private long[] marks = new long[0];
+  /**
+   * Epoch of the last search that used the bitmaps.
+   */
+  private int bitmapEpoch;
+
+  /**
+   * Gets the workspace of the current thread.
+   */
+  public static SearchWorkspace forCurrentThread() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Starts a new search over vertex ids lower than a given bound, invalidating the data of the
+   * previous search.
+   *
+   * @return The epoch of the new search.
+   */
+  int begin(int bound) {
+    if (stamp.length < bound) {
+      int capacity = Math.max(bound, stamp.length + (stamp.length >> 1));
+      stamp = new int[capacity];
+      color = new byte[capacity];
+      depth = new int[capacity];
+      time = new int[capacity];
+      predecessor = new int[capacity];
+      order = new int[capacity];
+      queue = new int[capacity];
+      claims = new AtomicLongArray((capacity + 63) >>> 6);
+      marks = new long[(capacity + 63) >>> 6];
+      // The new arrays hold no stamp, so the epoch keeps increasing and the states of the previous
+      // searches remain invalidated.
+    }
+    if (++epoch == Integer.MAX_VALUE) {
+      Arrays.fill(stamp, 0);
+      epoch = 1;
+      generation++;
+      bitmapEpoch = 0;
+      clearBitmaps();
+    }
+    return epoch;
+  }
+
+  /**
+   * Gets the bitmaps used by the parallel searches, cleared for the current search. Unlike the
+   * other arrays, they are cleared explicitly, in O(V/64), the first time they are requested by a
+   * search.
+   */
+  AtomicLongArray claims() {
+    clearBitmaps();
+    return claims;
+  }
+
+  long[] marks() {
+    clearBitmaps();
+    return marks;
+  }
+
+  private void clearBitmaps() {
+    if (bitmapEpoch != epoch) {
+      for (int i = 0; i < claims.length(); i++) {
+        claims.set(i, 0L);
+      }
+      Arrays.fill(marks, 0L);
+      bitmapEpoch = epoch;
+    }
+  }
+}
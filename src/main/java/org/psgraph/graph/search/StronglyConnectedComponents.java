@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import org.psgraph.graph.Edge;
@@ -38,6 +39,7 @@ public class StronglyConnectedComponents<V extends Vertex, E extends Edge<V>> {
     int index = -1;
     int lowLink;
     boolean onStack = false;
+    Iterator<V> successors;
   }
 
   public StronglyConnectedComponents(Graph<V, E> graph) {
@@ -46,7 +48,8 @@ public class StronglyConnectedComponents<V extends Vertex, E extends Edge<V>> {
 
   /**
    * Gets a set of strongly connected components (scc) with a search performed from the start node
-   * provided.
+   * provided. Both the search and the components' algorithm use explicit stacks, so arbitrarily
+   * deep graphs are supported.
    *
    * @param s Start vertex for the search.
    * @return A set in which each internal set corresponds to a scc.
@@ -56,10 +59,10 @@ public class StronglyConnectedComponents<V extends Vertex, E extends Edge<V>> {
   }
 
   /**
-   * Gets a set of strongly connected components (scc) with a search performed from the start node
-   * provided.
+   * Gets a set of strongly connected components (scc) of the subgraph formed by the vertices of a
+   * search previously performed.
    *
-   * @param searchData Start vertex for the search.
+   * @param searchData The result of the search.
    * @return A set in which each internal set corresponds to a scc.
    */
   public Set<Set<V>> scc(Map<V, SearchData<V>> searchData) {
@@ -78,41 +81,70 @@ public class StronglyConnectedComponents<V extends Vertex, E extends Edge<V>> {
     sccIndex = 0;
     for (Map.Entry<V, VertexData> entry : sccMap.entrySet()) {
       if (entry.getValue().index == -1) {
-        ret.addAll(strongConnect(entry.getKey(), S, sccMap, searchData));
+        strongConnect(entry.getKey(), S, sccMap, ret);
       }
     }
-    return ret;
+    return Collections.unmodifiableSet(ret);
   }
 
-  private Set<Set<V>> strongConnect(V vertexV, Deque<V> S,
-      Map<V, VertexData> sccMap, final Map<V, SearchData<V>> searchData) {
-    Set<Set<V>> ret = new HashSet<>();
+  /**
+   * Finds the strongly connected components reachable from a given vertex. The recursion of the
+   * original algorithm is replaced by an explicit stack of the vertices whose successors are being
+   * visited, thus the depth of the search is not limited by the call stack.
+   */
+  private void strongConnect(V root, Deque<V> S, Map<V, VertexData> sccMap, Set<Set<V>> ret) {
+    Deque<V> callStack = new ArrayDeque<>();
+    open(root, S, sccMap);
+    callStack.push(root);
+    while (!callStack.isEmpty()) {
+      V vertexV = callStack.peek();
+      VertexData v = sccMap.get(vertexV);
+      if (v.successors.hasNext()) {
+        V vertexW = v.successors.next();
+        VertexData w = sccMap.get(vertexW);
+        if (w == null) {
+          // Successor not reached by the search.
+          continue;
+        }
+        if (w.index == -1) {
+          open(vertexW, S, sccMap);
+          callStack.push(vertexW);
+        } else if (w.onStack) {
+          v.lowLink = v.lowLink < w.index ? v.lowLink : w.index;
+        }
+        continue;
+      }
+      callStack.pop();
+      v.successors = null;
+      if (!callStack.isEmpty()) {
+        VertexData parent = sccMap.get(callStack.peek());
+        parent.lowLink = parent.lowLink < v.lowLink ? parent.lowLink : v.lowLink;
+      }
+      if (v.lowLink == v.index) {
+        Set<V> scc = new HashSet<>();
+        V vertexW;
+        do {
+          vertexW = S.pop();
+          sccMap.get(vertexW).onStack = false;
+          scc.add(vertexW);
+        } while (vertexW != vertexV);
+        if (scc.size() > 1) {
+          ret.add(Collections.unmodifiableSet(scc));
+        }
+      }
+    }
+  }
+
+  /**
+   * Assigns the index of a given vertex and pushes it to the stack of the current components.
+   */
+  private void open(V vertexV, Deque<V> S, Map<V, VertexData> sccMap) {
     VertexData v = sccMap.get(vertexV);
     v.index = sccIndex;
-    v.lowLink = ++sccIndex;
+    v.lowLink = sccIndex;
+    sccIndex++;
+    v.successors = graph.getSuccessors(vertexV).iterator();
     S.push(vertexV);
     v.onStack = true;
-    for (V vertexW : searchData.get(vertexV).getSucessors()) {
-      VertexData w = sccMap.get(vertexW);
-      if (w.index == -1) {
-        ret.addAll(strongConnect(vertexW, S, sccMap, searchData));
-        v.lowLink = v.lowLink < w.lowLink ? v.lowLink : w.lowLink;
-      } else if (w.onStack) {
-        v.lowLink = v.lowLink < w.index ? v.lowLink : w.index;
-      }
-    }
-    if (v.lowLink == v.index) {
-      Set<V> scc = new HashSet<>();
-      V vertexW;
-      do {
-        vertexW = S.pop();
-        sccMap.get(vertexW).onStack = false;
-        scc.add(vertexW);
-      } while (vertexW != vertexV);
-      if (scc.size() > 1) {
-        ret.add(Collections.unmodifiableSet(scc));
-      }
-    }
-    return Collections.unmodifiableSet(ret);
   }
 }